@@ -11,7 +11,10 @@ package org.openmrs.module.gpconnect;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
+import org.openmrs.api.context.Context;
 import org.openmrs.module.BaseModuleActivator;
+import org.openmrs.module.gpconnect.mappers.UnknownCodeReporter;
+import org.openmrs.module.gpconnect.services.PatientIdentifierTypeNameCache;
 
 /**
  * This class contains the logic that is run every time this module is either started or shutdown
@@ -24,6 +27,7 @@ public class GPConnectActivator extends BaseModuleActivator {
 	 * @see #started()
 	 */
 	public void started() {
+		Context.getRegisteredComponents(PatientIdentifierTypeNameCache.class).forEach(PatientIdentifierTypeNameCache::load);
 		log.info("Started GPConnect");
 	}
 	
@@ -31,6 +35,7 @@ public class GPConnectActivator extends BaseModuleActivator {
 	 * @see #shutdown()
 	 */
 	public void shutdown() {
+		UnknownCodeReporter.getInstance().shutdown();
 		log.info("Shutdown GPConnect");
 	}
 	
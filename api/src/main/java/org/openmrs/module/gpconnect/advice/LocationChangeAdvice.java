@@ -0,0 +1,32 @@
+package org.openmrs.module.gpconnect.advice;
+
+import org.openmrs.Location;
+import org.openmrs.api.context.Context;
+import org.openmrs.module.gpconnect.services.LocationResourceCache;
+import org.springframework.aop.AfterReturningAdvice;
+
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Empties the {@link LocationResourceCache} whenever a location is saved, retired, unretired or purged
+ * through the LocationService. The whole cache goes, rather than the one location, because cached
+ * locations embed their parent's name and reference. The cache evicts again once the service's
+ * transaction completes, so a read that races the uncommitted change cannot re-cache the old location.
+ */
+public class LocationChangeAdvice implements AfterReturningAdvice {
+	
+	static final Set<String> CHANGING_METHODS = new HashSet<>(Arrays.asList("saveLocation", "retireLocation",
+	    "unretireLocation", "purgeLocation"));
+	
+	@Override
+	public void afterReturning(Object returnValue, Method method, Object[] args, Object target) {
+		if (!CHANGING_METHODS.contains(method.getName()) || args.length == 0 || !(args[0] instanceof Location)) {
+			return;
+		}
+		
+		Context.getRegisteredComponents(LocationResourceCache.class).forEach(LocationResourceCache::invalidateAll);
+	}
+}
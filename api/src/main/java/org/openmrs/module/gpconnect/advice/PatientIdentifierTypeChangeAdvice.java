@@ -0,0 +1,28 @@
+package org.openmrs.module.gpconnect.advice;
+
+import org.openmrs.api.context.Context;
+import org.openmrs.module.gpconnect.services.PatientIdentifierTypeNameCache;
+import org.springframework.aop.AfterReturningAdvice;
+
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Invalidates the {@link PatientIdentifierTypeNameCache} whenever a patient identifier type is
+ * saved, retired, unretired or purged through the PatientService.
+ */
+public class PatientIdentifierTypeChangeAdvice implements AfterReturningAdvice {
+	
+	static final Set<String> CHANGING_METHODS = new HashSet<>(Arrays.asList("savePatientIdentifierType",
+	    "retirePatientIdentifierType", "unretirePatientIdentifierType", "purgePatientIdentifierType"));
+	
+	@Override
+	public void afterReturning(Object returnValue, Method method, Object[] args, Object target) {
+		if (CHANGING_METHODS.contains(method.getName())) {
+			Context.getRegisteredComponents(PatientIdentifierTypeNameCache.class).forEach(
+			    PatientIdentifierTypeNameCache::invalidate);
+		}
+	}
+}
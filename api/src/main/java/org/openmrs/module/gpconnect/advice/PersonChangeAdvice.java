@@ -0,0 +1,63 @@
+package org.openmrs.module.gpconnect.advice;
+
+import org.openmrs.Person;
+import org.openmrs.PersonAddress;
+import org.openmrs.PersonAttribute;
+import org.openmrs.PersonName;
+import org.openmrs.Provider;
+import org.openmrs.api.context.Context;
+import org.openmrs.module.gpconnect.services.PractitionerResourceCache;
+import org.springframework.aop.AfterReturningAdvice;
+
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Evicts the practitioners of a person from the {@link PractitionerResourceCache} whenever the person,
+ * or one of their names, addresses or attributes, is changed through the PersonService, since the
+ * cached Practitioner resources carry the person's details.
+ */
+public class PersonChangeAdvice implements AfterReturningAdvice {
+	
+	static final Set<String> CHANGING_METHODS = new HashSet<>(Arrays.asList("savePerson", "voidPerson", "unvoidPerson",
+	    "purgePerson", "savePersonName", "voidPersonName", "unvoidPersonName", "savePersonAddress", "voidPersonAddress",
+	    "unvoidPersonAddress", "voidPersonAttribute", "unvoidPersonAttribute"));
+	
+	@Override
+	public void afterReturning(Object returnValue, Method method, Object[] args, Object target) {
+		if (!CHANGING_METHODS.contains(method.getName()) || args.length == 0) {
+			return;
+		}
+		
+		Person person = getPerson(args[0]);
+		if (person == null || person.getPersonId() == null) {
+			return;
+		}
+		
+		List<Provider> providers = Context.getProviderService().getProvidersByPerson(person, true);
+		if (providers.isEmpty()) {
+			return;
+		}
+		
+		List<PractitionerResourceCache> caches = Context.getRegisteredComponents(PractitionerResourceCache.class);
+		for (Provider provider : providers) {
+			caches.forEach(cache -> cache.invalidate(provider.getUuid()));
+		}
+	}
+	
+	private static Person getPerson(Object changed) {
+		if (changed instanceof Person) {
+			return (Person) changed;
+		} else if (changed instanceof PersonName) {
+			return ((PersonName) changed).getPerson();
+		} else if (changed instanceof PersonAddress) {
+			return ((PersonAddress) changed).getPerson();
+		} else if (changed instanceof PersonAttribute) {
+			return ((PersonAttribute) changed).getPerson();
+		}
+		return null;
+	}
+}
@@ -0,0 +1,28 @@
+package org.openmrs.module.gpconnect.advice;
+
+import org.openmrs.api.context.Context;
+import org.openmrs.module.gpconnect.translators.SdsRoleProfileIdTranslatorImpl;
+import org.springframework.aop.AfterReturningAdvice;
+
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Makes {@link SdsRoleProfileIdTranslatorImpl} look up its provider attribute type again whenever a
+ * provider attribute type is saved, retired, unretired or purged through the ProviderService.
+ */
+public class ProviderAttributeTypeChangeAdvice implements AfterReturningAdvice {
+	
+	static final Set<String> CHANGING_METHODS = new HashSet<>(Arrays.asList("saveProviderAttributeType",
+	    "retireProviderAttributeType", "unretireProviderAttributeType", "purgeProviderAttributeType"));
+	
+	@Override
+	public void afterReturning(Object returnValue, Method method, Object[] args, Object target) {
+		if (CHANGING_METHODS.contains(method.getName())) {
+			Context.getRegisteredComponents(SdsRoleProfileIdTranslatorImpl.class).forEach(
+			    SdsRoleProfileIdTranslatorImpl::invalidate);
+		}
+	}
+}
@@ -0,0 +1,33 @@
+package org.openmrs.module.gpconnect.advice;
+
+import org.openmrs.Provider;
+import org.openmrs.api.context.Context;
+import org.openmrs.module.gpconnect.services.PractitionerResourceCache;
+import org.springframework.aop.AfterReturningAdvice;
+
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Evicts a practitioner from the {@link PractitionerResourceCache} whenever its provider is saved,
+ * retired, unretired or purged through the ProviderService, and empties the cache when a provider
+ * attribute type changes. The cache evicts again once the service's transaction completes, so a read
+ * that races the uncommitted change cannot re-cache the old practitioner.
+ */
+public class ProviderChangeAdvice implements AfterReturningAdvice {
+	
+	static final Set<String> PROVIDER_CHANGING_METHODS = new HashSet<>(Arrays.asList("saveProvider", "retireProvider",
+	    "unretireProvider", "purgeProvider"));
+	
+	@Override
+	public void afterReturning(Object returnValue, Method method, Object[] args, Object target) {
+		if (PROVIDER_CHANGING_METHODS.contains(method.getName()) && args.length > 0 && args[0] instanceof Provider) {
+			String uuid = ((Provider) args[0]).getUuid();
+			Context.getRegisteredComponents(PractitionerResourceCache.class).forEach(cache -> cache.invalidate(uuid));
+		} else if (ProviderAttributeTypeChangeAdvice.CHANGING_METHODS.contains(method.getName())) {
+			Context.getRegisteredComponents(PractitionerResourceCache.class).forEach(PractitionerResourceCache::invalidateAll);
+		}
+	}
+}
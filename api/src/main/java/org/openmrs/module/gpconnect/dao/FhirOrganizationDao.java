@@ -1,6 +1,13 @@
 package org.openmrs.module.gpconnect.dao;
 
+import java.util.List;
+
 import org.openmrs.module.fhir2.api.dao.FhirDao;
 import org.openmrs.module.gpconnect.models.OpenmrsOrganization;
 
-public interface FhirOrganizationDao extends FhirDao<OpenmrsOrganization> {}
+public interface FhirOrganizationDao extends FhirDao<OpenmrsOrganization> {
+	
+	int countByOdsCode(String odsCode);
+	
+	List<OpenmrsOrganization> getByOdsCode(String odsCode, int firstResult, int maxResults);
+}
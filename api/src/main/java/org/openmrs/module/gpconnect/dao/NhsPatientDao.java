@@ -1,13 +1,22 @@
 package org.openmrs.module.gpconnect.dao;
 
 import org.hibernate.SessionFactory;
+import org.hibernate.criterion.Projections;
 import org.openmrs.module.gpconnect.entity.NhsPatient;
+import org.openmrs.module.gpconnect.util.Extensions;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Component;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
 import static org.hibernate.criterion.Restrictions.eq;
+import static org.hibernate.criterion.Restrictions.in;
 
 @Component
 @Transactional
@@ -18,8 +27,51 @@ public class NhsPatientDao {
 	private SessionFactory sessionFactory;
 	
 	public NhsPatient getPatientById(Long id) {
-		return (NhsPatient) sessionFactory.getCurrentSession().createCriteria(NhsPatient.class).add(eq("id", id))
-		        .uniqueResult();
+		return (NhsPatient) sessionFactory.getCurrentSession().get(NhsPatient.class, id);
+	}
+	
+	public Long findPatientIdByNhsNumber(String nhsNumber) {
+		return (Long) sessionFactory.getCurrentSession().createCriteria(NhsPatient.class)
+		        .add(eq("nhsNumber", nhsNumber)).setProjection(Projections.id()).uniqueResult();
+	}
+	
+	public boolean isNhsNumberAssigned(String nhsNumber) {
+		Long count = (Long) sessionFactory.getCurrentSession()
+		        .createQuery("select count(pi) from PatientIdentifier pi where pi.identifier = :nhsNumber "
+		                + "and pi.identifierType.name = :system and pi.voided = false")
+		        .setParameter("nhsNumber", nhsNumber).setParameter("system", Extensions.NHS_NUMBER_SYSTEM).uniqueResult();
+		return count != null && count > 0;
+	}
+	
+	@SuppressWarnings("unchecked")
+	public List<NhsPatient> findAllByIds(Collection<Long> ids) {
+		if (ids.isEmpty()) {
+			return Collections.emptyList();
+		}
+		
+		return sessionFactory.getCurrentSession().createCriteria(NhsPatient.class).add(in("id", ids)).list();
+	}
+	
+	@SuppressWarnings("unchecked")
+	public Map<String, Integer> getPatientIdsByUuids(Collection<String> uuids) {
+		if (uuids.isEmpty()) {
+			return Collections.emptyMap();
+		}
+		
+		List<Object[]> rows = sessionFactory.getCurrentSession()
+		        .createQuery("select p.uuid, p.patientId from Patient p where p.uuid in (:uuids)")
+		        .setParameterList("uuids", uuids).list();
+		
+		Map<String, Integer> patientIds = new HashMap<>();
+		for (Object[] row : rows) {
+			patientIds.put((String) row[0], (Integer) row[1]);
+		}
+		return patientIds;
+	}
+	
+	public void create(NhsPatient nhsPatient) {
+		sessionFactory.getCurrentSession().save(nhsPatient);
+		sessionFactory.getCurrentSession().flush();
 	}
 	
 	public void saveOrUpdate(NhsPatient nhsPatient) {
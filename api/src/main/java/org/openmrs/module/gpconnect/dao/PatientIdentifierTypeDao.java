@@ -0,0 +1,24 @@
+package org.openmrs.module.gpconnect.dao;
+
+import org.hibernate.SessionFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+@Component
+@Transactional(readOnly = true)
+public class PatientIdentifierTypeDao {
+	
+	@Autowired
+	@Qualifier("sessionFactory")
+	private SessionFactory sessionFactory;
+	
+	@SuppressWarnings("unchecked")
+	public List<String> getUnretiredNames() {
+		return sessionFactory.getCurrentSession()
+		        .createQuery("select t.name from PatientIdentifierType t where t.retired = false").list();
+	}
+}
@@ -0,0 +1,63 @@
+package org.openmrs.module.gpconnect.dao;
+
+import org.hibernate.SessionFactory;
+import org.openmrs.Provider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+@Component
+@Transactional(readOnly = true)
+public class ProviderDao {
+	
+	@Autowired
+	@Qualifier("sessionFactory")
+	private SessionFactory sessionFactory;
+	
+	/**
+	 * Looks unretired providers up by the SDS user id stored in their identifier, fetching their
+	 * attributes in the same query.
+	 */
+	@SuppressWarnings("unchecked")
+	public List<Provider> getBySdsUserId(String sdsUserId) {
+		return sessionFactory.getCurrentSession()
+		        .createQuery("select distinct p from Provider p left join fetch p.attributes "
+		                + "where p.identifier = :identifier and p.retired = false")
+		        .setParameter("identifier", sdsUserId).list();
+	}
+	
+	/**
+	 * @return those of the given uuids that stored providers, retired or not, already have
+	 */
+	@SuppressWarnings("unchecked")
+	public Set<String> getStoredUuids(Collection<String> uuids) {
+		if (uuids.isEmpty()) {
+			return Collections.emptySet();
+		}
+		
+		return new HashSet<>(sessionFactory.getCurrentSession()
+		        .createQuery("select p.uuid from Provider p where p.uuid in (:uuids)")
+		        .setParameterList("uuids", uuids).list());
+	}
+	
+	/**
+	 * @return those of the given SDS user ids that unretired providers already have
+	 */
+	@SuppressWarnings("unchecked")
+	public Set<String> getSdsUserIdsInUse(Collection<String> sdsUserIds) {
+		if (sdsUserIds.isEmpty()) {
+			return Collections.emptySet();
+		}
+		
+		return new HashSet<>(sessionFactory.getCurrentSession()
+		        .createQuery("select p.identifier from Provider p where p.identifier in (:identifiers) and p.retired = false")
+		        .setParameterList("identifiers", sdsUserIds).list());
+	}
+}
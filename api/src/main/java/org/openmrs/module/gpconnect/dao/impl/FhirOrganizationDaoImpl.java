@@ -1,6 +1,10 @@
 package org.openmrs.module.gpconnect.dao.impl;
 
+import java.util.List;
+
 import org.hibernate.SessionFactory;
+import org.hibernate.criterion.Order;
+import org.hibernate.criterion.Projections;
 import org.hibernate.criterion.Restrictions;
 import org.openmrs.module.fhir2.api.dao.impl.BaseFhirDao;
 import org.openmrs.module.gpconnect.dao.FhirOrganizationDao;
@@ -16,6 +20,21 @@ public class FhirOrganizationDaoImpl extends BaseFhirDao<OpenmrsOrganization> im
 		        .add(Restrictions.eq("uuid", uuid)).uniqueResult();
 	}
 	
+	@Override
+	public int countByOdsCode(String odsCode) {
+		Number count = (Number) this.getSessionFactory().getCurrentSession().createCriteria(OpenmrsOrganization.class)
+		        .add(Restrictions.eq("odsCode", odsCode)).setProjection(Projections.rowCount()).uniqueResult();
+		return count == null ? 0 : count.intValue();
+	}
+	
+	@Override
+	@SuppressWarnings("unchecked")
+	public List<OpenmrsOrganization> getByOdsCode(String odsCode, int firstResult, int maxResults) {
+		return this.getSessionFactory().getCurrentSession().createCriteria(OpenmrsOrganization.class)
+		        .add(Restrictions.eq("odsCode", odsCode)).addOrder(Order.asc("id")).setFirstResult(firstResult)
+		        .setMaxResults(maxResults).list();
+	}
+	
 	@Override
 	public void setSessionFactory(SessionFactory sessionFactory) {
 		super.setSessionFactory(sessionFactory);
@@ -1,6 +1,7 @@
 package org.openmrs.module.gpconnect.entity;
 
 import lombok.EqualsAndHashCode;
+import lombok.Getter;
 import lombok.Setter;
 import lombok.ToString;
 
@@ -12,6 +13,7 @@ import java.util.Date;
 @Entity(name = "nhs_patient")
 @EqualsAndHashCode
 @ToString
+@Getter
 @Setter
 public class NhsPatient {
 	
@@ -48,4 +50,27 @@ public class NhsPatient {
 	
 	@Column(name = "death_notification_status")
 	public String deathNotificationStatus;
+	
+	/**
+	 * @return a detached copy of this row that shares no mutable state with it
+	 */
+	public NhsPatient copy() {
+		NhsPatient copy = new NhsPatient();
+		copy.id = id;
+		copy.nhsNumber = nhsNumber;
+		copy.nhsNumberVerificationStatus = nhsNumberVerificationStatus;
+		copy.ethnicCategory = ethnicCategory;
+		copy.residentialStatus = residentialStatus;
+		copy.treatmentCategory = treatmentCategory;
+		copy.registrationStart = copyOf(registrationStart);
+		copy.registrationEnd = copyOf(registrationEnd);
+		copy.registrationType = registrationType;
+		copy.preferredBranch = preferredBranch;
+		copy.deathNotificationStatus = deathNotificationStatus;
+		return copy;
+	}
+	
+	private static Date copyOf(Date date) {
+		return date == null ? null : new Date(date.getTime());
+	}
 }
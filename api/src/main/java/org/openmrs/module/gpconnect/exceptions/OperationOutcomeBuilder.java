@@ -3,9 +3,8 @@ package org.openmrs.module.gpconnect.exceptions;
 import java.util.Collections;
 import org.hl7.fhir.dstu3.model.CodeableConcept;
 import org.hl7.fhir.dstu3.model.Coding;
-import org.hl7.fhir.dstu3.model.Meta;
 import org.hl7.fhir.dstu3.model.OperationOutcome;
-import org.hl7.fhir.dstu3.model.UriType;
+import org.openmrs.module.gpconnect.util.GPConnectProfile;
 
 public class OperationOutcomeBuilder {
 	
@@ -35,10 +34,7 @@ public class OperationOutcomeBuilder {
 	
 	public OperationOutcome build() {
 		OperationOutcome operationOutcome = new OperationOutcome();
-		Meta meta = new Meta();
-		meta.setProfile(Collections.singletonList(new UriType(
-		        "https://fhir.nhs.uk/STU3/StructureDefinition/GPConnect-OperationOutcome-1")));
-		operationOutcome.setMeta(meta);
+		operationOutcome.setMeta(GPConnectProfile.OPERATION_OUTCOME.meta());
 		
 		OperationOutcome.OperationOutcomeIssueComponent issue = new OperationOutcome.OperationOutcomeIssueComponent();
 		issue.setSeverity(OperationOutcome.IssueSeverity.ERROR);
@@ -9,6 +9,7 @@ import org.hl7.fhir.dstu3.model.Patient;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.stream.Collectors;
 
 public class CodeableConceptExtension implements PatientExtension<String> {
 	
@@ -16,12 +17,25 @@ public class CodeableConceptExtension implements PatientExtension<String> {
 	
 	private final String codeSystem;
 	
-	private final Map<String, String> dictionary;
+	/**
+	 * One prototype coding per known code. Prototypes are copied into every extension built and never
+	 * handed out themselves.
+	 */
+	private final Map<String, Coding> codings;
+	
+	private final UnknownCodeReporter unknownCodeReporter;
 	
 	public CodeableConceptExtension(String extensionUrl, String codeSystem, Map<String, String> dictionary) {
+		this(extensionUrl, codeSystem, dictionary, UnknownCodeReporter.getInstance());
+	}
+	
+	CodeableConceptExtension(String extensionUrl, String codeSystem, Map<String, String> dictionary,
+	    UnknownCodeReporter unknownCodeReporter) {
 		this.extensionUrl = extensionUrl;
 		this.codeSystem = codeSystem;
-		this.dictionary = dictionary;
+		this.codings = dictionary.entrySet().stream()
+		        .collect(Collectors.toMap(Map.Entry::getKey, entry -> new Coding(codeSystem, entry.getKey(), entry.getValue())));
+		this.unknownCodeReporter = unknownCodeReporter;
 	}
 	
 	public Optional<Extension> createExtension(String value) {
@@ -29,14 +43,15 @@ public class CodeableConceptExtension implements PatientExtension<String> {
 			return Optional.empty();
 		}
 		
-		if (!dictionary.containsKey(value)) {
-			System.out.printf("The %s: %s is not a known one\n", extensionUrl, value);
+		Coding coding = codings.get(value);
+		if (coding == null) {
+			unknownCodeReporter.record(extensionUrl, value);
 			
 			return Optional.empty();
 		}
 		
 		CodeableConcept codeableConcept = new CodeableConcept();
-		codeableConcept.addCoding(new Coding(codeSystem, value, dictionary.get(value)));
+		codeableConcept.addCoding(coding.copy());
 		Extension extension = new Extension(extensionUrl, codeableConcept);
 		return Optional.of(extension);
 	}
@@ -51,16 +66,27 @@ public class CodeableConceptExtension implements PatientExtension<String> {
 	
 	private Optional<String> getValue(List<Extension> extensions) {
 		if (extensions.size() > 0) {
-			Coding coding = ((CodeableConcept) extensions.get(0).getValue()).getCoding().get(0);
-			
-			if (coding.getSystem().equals(codeSystem) && dictionary.containsKey(coding.getCode())) {
-				return Optional.of(coding.getCode());
-			}
-			
+			return getCode(extensions.get(0));
+		}
+		return Optional.empty();
+	}
+	
+	/**
+	 * Reads the code from an extension already known to have this extension's url.
+	 */
+	Optional<String> getCode(Extension extension) {
+		Coding coding = ((CodeableConcept) extension.getValue()).getCoding().get(0);
+		
+		if (coding.getSystem().equals(codeSystem) && codings.containsKey(coding.getCode())) {
+			return Optional.of(coding.getCode());
 		}
 		return Optional.empty();
 	}
 	
+	public String getExtensionUrl() {
+		return extensionUrl;
+	}
+	
 	public Optional<String> getValue(Identifier identifier) {
 		return getValue(identifier.getExtensionsByUrl(extensionUrl));
 	}
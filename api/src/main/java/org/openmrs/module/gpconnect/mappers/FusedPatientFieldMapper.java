@@ -0,0 +1,159 @@
+package org.openmrs.module.gpconnect.mappers;
+
+import org.hl7.fhir.dstu3.model.Extension;
+import org.hl7.fhir.dstu3.model.Identifier;
+import org.hl7.fhir.dstu3.model.Patient;
+import org.hl7.fhir.dstu3.model.Period;
+import org.hl7.fhir.dstu3.model.Reference;
+import org.openmrs.module.gpconnect.entity.NhsPatient;
+import org.openmrs.module.gpconnect.util.Extensions;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.BiConsumer;
+
+/**
+ * Maps every NHS field (NHS number and its verification status, ethnic category, registration
+ * details, treatment category, residential status and death notification status) in one pass over
+ * the patient's identifiers and extensions. Only the first extension with a given url is read. The
+ * per-field mappers this replaced are kept under src/test, where FusedPatientFieldMapperTest checks
+ * that both produce the same result.
+ */
+public class FusedPatientFieldMapper implements PatientFieldMapper {
+	
+	private final CodeableConceptExtension nhsNumberVerificationStatus;
+	
+	private final CodeableConceptExtension ethnicCategory;
+	
+	private final CodeableConceptExtension registrationType;
+	
+	private final CodeableConceptExtension treatmentCategory;
+	
+	private final CodeableConceptExtension residentialStatus;
+	
+	private final CodeableConceptExtension deathNotificationStatus;
+	
+	private final Map<String, Integer> readerIndexes = new HashMap<>();
+	
+	private final List<BiConsumer<Extension, NhsPatient>> readers = new ArrayList<>();
+	
+	public FusedPatientFieldMapper(CodeableConceptExtension nhsNumberVerificationStatus,
+	    CodeableConceptExtension ethnicCategory, CodeableConceptExtension registrationType,
+	    CodeableConceptExtension treatmentCategory, CodeableConceptExtension residentialStatus,
+	    CodeableConceptExtension deathNotificationStatus) {
+		this.nhsNumberVerificationStatus = nhsNumberVerificationStatus;
+		this.ethnicCategory = ethnicCategory;
+		this.registrationType = registrationType;
+		this.treatmentCategory = treatmentCategory;
+		this.residentialStatus = residentialStatus;
+		this.deathNotificationStatus = deathNotificationStatus;
+		
+		addReader(ethnicCategory.getExtensionUrl(),
+		    (extension, nhsPatient) -> ethnicCategory.getCode(extension).ifPresent(nhsPatient::setEthnicCategory));
+		addReader(Extensions.REGISTRATION_DETAILS_URL, this::readRegistrationDetails);
+		addReader(treatmentCategory.getExtensionUrl(),
+		    (extension, nhsPatient) -> treatmentCategory.getCode(extension).ifPresent(nhsPatient::setTreatmentCategory));
+		addReader(residentialStatus.getExtensionUrl(),
+		    (extension, nhsPatient) -> residentialStatus.getCode(extension).ifPresent(nhsPatient::setResidentialStatus));
+		addReader(deathNotificationStatus.getExtensionUrl(), (extension, nhsPatient) -> deathNotificationStatus
+		        .getCode(extension).ifPresent(nhsPatient::setDeathNotificationStatus));
+	}
+	
+	@Override
+	public Patient enhance(Patient patient, NhsPatient nhsPatient) {
+		Identifier oldNhsNoIdentifier = findNhsNumberIdentifier(patient).get();
+		
+		Identifier nhsNoIdentifier = new Identifier().setSystem(Extensions.NHS_NUMBER_SYSTEM).setValue(
+		    oldNhsNoIdentifier.getValue());
+		nhsNumberVerificationStatus.createExtension(nhsPatient.nhsNumberVerificationStatus).ifPresent(
+		    nhsNoIdentifier::addExtension);
+		patient.setIdentifier(Collections.singletonList(nhsNoIdentifier));
+		
+		ethnicCategory.createExtension(nhsPatient.ethnicCategory).ifPresent(patient::addExtension);
+		patient.addExtension(createRegistrationDetails(nhsPatient));
+		treatmentCategory.createExtension(nhsPatient.treatmentCategory).ifPresent(patient::addExtension);
+		residentialStatus.createExtension(nhsPatient.residentialStatus).ifPresent(patient::addExtension);
+		deathNotificationStatus.createExtension(nhsPatient.deathNotificationStatus).ifPresent(patient::addExtension);
+		
+		return patient;
+	}
+	
+	@Override
+	public NhsPatient mapToNhsPatient(Patient patient, NhsPatient nhsPatient) {
+		findNhsNumberIdentifier(patient).ifPresent(nhsNoIdentifier -> {
+			Optional.ofNullable(nhsNoIdentifier.getValue()).ifPresent(nhsPatient::setNhsNumber);
+			nhsNumberVerificationStatus.getValue(nhsNoIdentifier).ifPresent(nhsPatient::setNhsNumberVerificationStatus);
+		});
+		
+		boolean[] read = new boolean[readers.size()];
+		for (Extension extension : patient.getExtension()) {
+			Integer index = readerIndexes.get(extension.getUrl());
+			if (index != null && !read[index]) {
+				read[index] = true;
+				readers.get(index).accept(extension, nhsPatient);
+			}
+		}
+		
+		return nhsPatient;
+	}
+	
+	private void addReader(String extensionUrl, BiConsumer<Extension, NhsPatient> reader) {
+		readerIndexes.put(extensionUrl, readers.size());
+		readers.add(reader);
+	}
+	
+	private Optional<Identifier> findNhsNumberIdentifier(Patient patient) {
+		for (Identifier identifier : patient.getIdentifier()) {
+			if (Extensions.NHS_NUMBER_SYSTEM.equals(identifier.getSystem())) {
+				return Optional.of(identifier);
+			}
+		}
+		return Optional.empty();
+	}
+	
+	private Extension createRegistrationDetails(NhsPatient nhsPatient) {
+		Extension extension = new Extension(Extensions.REGISTRATION_DETAILS_URL);
+		
+		if (nhsPatient.registrationStart != null || nhsPatient.registrationEnd != null) {
+			Period period = new Period();
+			period.setStart(nhsPatient.registrationStart);
+			period.setEnd(nhsPatient.registrationEnd);
+			extension.addExtension(new Extension(Extensions.REGISTRATION_PERIOD, period));
+		}
+		
+		registrationType.createExtension(nhsPatient.registrationType).ifPresent(extension::addExtension);
+		
+		if (nhsPatient.preferredBranch != null) {
+			extension.addExtension(new Extension(Extensions.PREFERRED_BRANCH, new Reference(nhsPatient.preferredBranch)));
+		}
+		
+		return extension;
+	}
+	
+	private void readRegistrationDetails(Extension registrationDetails, NhsPatient nhsPatient) {
+		boolean periodRead = false;
+		boolean typeRead = false;
+		boolean preferredBranchRead = false;
+		
+		for (Extension detail : registrationDetails.getExtension()) {
+			String url = detail.getUrl();
+			
+			if (!periodRead && Extensions.REGISTRATION_PERIOD.equals(url)) {
+				periodRead = true;
+				Period period = (Period) detail.getValue();
+				nhsPatient.setRegistrationStart(period.getStart());
+				nhsPatient.setRegistrationEnd(period.getEnd());
+			} else if (!typeRead && registrationType.getExtensionUrl().equals(url)) {
+				typeRead = true;
+				registrationType.getCode(detail).ifPresent(nhsPatient::setRegistrationType);
+			} else if (!preferredBranchRead && Extensions.PREFERRED_BRANCH.equals(url)) {
+				preferredBranchRead = true;
+				nhsPatient.setPreferredBranch(((Reference) detail.getValue()).getReference());
+			}
+		}
+	}
+}
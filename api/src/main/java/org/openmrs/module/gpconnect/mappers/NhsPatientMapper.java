@@ -1,7 +1,6 @@
 package org.openmrs.module.gpconnect.mappers;
 
 import org.hl7.fhir.dstu3.model.BooleanType;
-import org.hl7.fhir.dstu3.model.Meta;
 import org.hl7.fhir.dstu3.model.Patient;
 import org.openmrs.api.PatientService;
 import org.openmrs.module.gpconnect.entity.NhsPatient;
@@ -14,11 +13,14 @@ import org.openmrs.module.gpconnect.mappers.valueSets.TreatmentCategory;
 import org.openmrs.module.gpconnect.services.NhsPatientService;
 import org.openmrs.module.gpconnect.util.CodeSystems;
 import org.openmrs.module.gpconnect.util.Extensions;
+import org.openmrs.module.gpconnect.util.GPConnectProfile;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
-import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.stream.Collectors;
 
 @Component
 public class NhsPatientMapper {
@@ -29,25 +31,25 @@ public class NhsPatientMapper {
 	@Autowired
 	PatientService patientService;
 	
-	List<PatientFieldMapper> mappers;
+	PatientFieldMapper fieldMapper;
 	
 	public NhsPatientMapper() {
-		EthnicCategoryMapper ethnicCategory = new EthnicCategoryMapper(new CodeableConceptExtension(
-		        Extensions.ETHNIC_CATEGORY_URL, CodeSystems.ETHNIC_CATEGORY, EthnicCategory.dict()));
-		RegistrationDetailsMapper registrationDetails = new RegistrationDetailsMapper(new CodeableConceptExtension(
-		        Extensions.REGISTRATION_TYPE, CodeSystems.REGISTRATION_TYPE, RegistrationType.dict()));
-		TreatmentCategoryMapper treatmentCategory = new TreatmentCategoryMapper(new CodeableConceptExtension(
-		        Extensions.TREATMENT_CATEGORY_URL, CodeSystems.TREATMENT_CATEGORY, TreatmentCategory.dict()));
-		ResidentialStatusMapper residentialStatus = new ResidentialStatusMapper(new CodeableConceptExtension(
-		        Extensions.RESIDENTIAL_STATUS_URL, CodeSystems.RESIDENTIAL_STATUS, ResidentialStatus.dict()));
-		DeathNotificationStatusMapper deathNotificationStatus = new DeathNotificationStatusMapper(
-		        new CodeableConceptExtension(Extensions.DEATH_NOTIFICATION_STATUS_URL,
-		                CodeSystems.DEATH_NOTIFICATION_STATUS, DeathNotificationStatus.dict()));
+		CodeableConceptExtension nhsNo = new CodeableConceptExtension(Extensions.NHS_VERFICATION_STATUS_URL,
+		        CodeSystems.NHS_NO_VERIFICATION_STATUS, NhsNoVerificationStatus.dict());
+		CodeableConceptExtension ethnicCategory = new CodeableConceptExtension(Extensions.ETHNIC_CATEGORY_URL,
+		        CodeSystems.ETHNIC_CATEGORY, EthnicCategory.dict());
+		CodeableConceptExtension registrationType = new CodeableConceptExtension(Extensions.REGISTRATION_TYPE,
+		        CodeSystems.REGISTRATION_TYPE, RegistrationType.dict());
+		CodeableConceptExtension treatmentCategory = new CodeableConceptExtension(Extensions.TREATMENT_CATEGORY_URL,
+		        CodeSystems.TREATMENT_CATEGORY, TreatmentCategory.dict());
+		CodeableConceptExtension residentialStatus = new CodeableConceptExtension(Extensions.RESIDENTIAL_STATUS_URL,
+		        CodeSystems.RESIDENTIAL_STATUS, ResidentialStatus.dict());
+		CodeableConceptExtension deathNotificationStatus = new CodeableConceptExtension(
+		        Extensions.DEATH_NOTIFICATION_STATUS_URL, CodeSystems.DEATH_NOTIFICATION_STATUS,
+		        DeathNotificationStatus.dict());
 		
-		NhsNoMapper nhsNo = new NhsNoMapper(new CodeableConceptExtension(Extensions.NHS_VERFICATION_STATUS_URL,
-		        CodeSystems.NHS_NO_VERIFICATION_STATUS, NhsNoVerificationStatus.dict()));
-		mappers = Arrays.asList(nhsNo, ethnicCategory, registrationDetails, treatmentCategory,
-		    residentialStatus, deathNotificationStatus);
+		fieldMapper = new FusedPatientFieldMapper(nhsNo, ethnicCategory, registrationType, treatmentCategory,
+		        residentialStatus, deathNotificationStatus);
 	}
 	
 	public Patient enhance(Patient patient) {
@@ -64,11 +66,35 @@ public class NhsPatientMapper {
 		}
 		
 		NhsPatient nhsPatient = nhsPatientService.findById(omrsPatient.getPatientId().longValue());
+		
+		return enhance(patient, nhsPatient);
+	}
+	
+	public List<Patient> enhanceAll(List<Patient> patients) {
+		List<String> uuids = patients.stream()
+				.filter(Objects::nonNull)
+				.map(Patient::getId)
+				.collect(Collectors.toList());
 
-		Meta meta = new Meta();
-		meta.setVersionId(String.format("%s-1", uuid));
-		meta.addProfile("https://fhir.nhs.uk/STU3/StructureDefinition/CareConnect-GPC-Patient-1");
-		patient.setMeta(meta);
+		Map<String, Integer> patientIds = nhsPatientService.getPatientIdsByUuids(uuids);
+
+		Map<Long, NhsPatient> nhsPatients = nhsPatientService.findAllByIds(patientIds.values()
+				.stream()
+				.map(Integer::longValue)
+				.collect(Collectors.toList()));
+
+		return patients.stream()
+				.map(patient -> {
+					if (patient == null || !patientIds.containsKey(patient.getId())) {
+						return patient;
+					}
+					return enhance(patient, nhsPatients.get(patientIds.get(patient.getId()).longValue()));
+				})
+				.collect(Collectors.toList());
+	}
+	
+	public Patient enhance(Patient patient, NhsPatient nhsPatient) {
+		patient.setMeta(GPConnectProfile.PATIENT.meta(String.format("%s-1", patient.getId())));
 
 		if ((patient.getDeceased() instanceof BooleanType) && !((BooleanType) patient.getDeceased()).booleanValue()) {
 			patient.setDeceased(null);
@@ -78,23 +104,11 @@ public class NhsPatientMapper {
 			return patient;
 		}
 
-		patient = mappers.stream()
-				.reduce(patient,
-						(currentPatient, patientFieldMapper) -> patientFieldMapper.enhance(currentPatient, nhsPatient),
-						(currentPatient, formerPatient) -> currentPatient
-				);
-
-		return patient;
+		return fieldMapper.enhance(patient, nhsPatient);
 	}
 	
 	public NhsPatient toNhsPatient(Patient patient, long patientId) {
-		NhsPatient nhsPatient = new NhsPatient();
-
-		nhsPatient = mappers.stream()
-				.reduce(nhsPatient,
-						(currentNhsPatient, patientFieldMapper) -> patientFieldMapper.mapToNhsPatient(patient, currentNhsPatient),
-						(currentPatient, formerPatient) -> currentPatient
-				);
+		NhsPatient nhsPatient = fieldMapper.mapToNhsPatient(patient, new NhsPatient());
 
 		nhsPatient.setId(patientId);
 
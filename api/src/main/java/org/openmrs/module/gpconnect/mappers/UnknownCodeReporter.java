@@ -0,0 +1,117 @@
+package org.openmrs.module.gpconnect.mappers;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counts stored codes that are not part of their value set, per extension url and code. The request
+ * thread only increments counters; a background thread writes a summary to the module log at most
+ * once per {@link #REPORT_INTERVAL_SECONDS}.
+ */
+public class UnknownCodeReporter {
+
+	static final long REPORT_INTERVAL_SECONDS = 60;
+
+	private static final Log log = LogFactory.getLog(UnknownCodeReporter.class);
+
+	private static final UnknownCodeReporter INSTANCE = new UnknownCodeReporter();
+
+	private final ConcurrentMap<String, ConcurrentMap<String, LongAdder>> totals = new ConcurrentHashMap<>();
+
+	private final ConcurrentMap<String, ConcurrentMap<String, LongAdder>> unreported = new ConcurrentHashMap<>();
+
+	private volatile ScheduledExecutorService scheduler;
+
+	UnknownCodeReporter() {
+	}
+
+	public static UnknownCodeReporter getInstance() {
+		return INSTANCE;
+	}
+
+	public void record(String extensionUrl, String code) {
+		increment(totals, extensionUrl, code);
+		increment(unreported, extensionUrl, code);
+		ensureScheduled();
+	}
+
+	/**
+	 * The supported read API for the unknown code metrics, alongside the periodic log. The returned maps
+	 * are a sorted snapshot and do not change as further codes are reported.
+	 *
+	 * @return the number of times each unknown code has been seen, keyed by extension url and then code
+	 */
+	public Map<String, Map<String, Long>> getCounts() {
+		Map<String, Map<String, Long>> counts = new TreeMap<>();
+		totals.forEach((extensionUrl, codes) -> {
+			Map<String, Long> codeCounts = new TreeMap<>();
+			codes.forEach((code, count) -> codeCounts.put(code, count.sum()));
+			counts.put(extensionUrl, codeCounts);
+		});
+		return counts;
+	}
+
+	public synchronized void shutdown() {
+		if (scheduler != null) {
+			scheduler.shutdownNow();
+			scheduler = null;
+		}
+		report();
+	}
+
+	/**
+	 * Logs and resets the counts gathered since the last report.
+	 *
+	 * @return the logged summary, or null when no unknown codes were seen
+	 */
+	String report() {
+		Map<String, Map<String, Long>> counts = new TreeMap<>();
+		unreported.forEach((extensionUrl, codes) -> codes.forEach((code, count) -> {
+			long sum = count.sumThenReset();
+			if (sum > 0) {
+				counts.computeIfAbsent(extensionUrl, url -> new TreeMap<>()).put(code, sum);
+			}
+		}));
+
+		if (counts.isEmpty()) {
+			return null;
+		}
+
+		String summary = String.format("Unknown value set codes seen since the last report: %s", counts);
+		log.warn(summary);
+		return summary;
+	}
+
+	private void increment(ConcurrentMap<String, ConcurrentMap<String, LongAdder>> counters, String extensionUrl,
+	        String code) {
+		counters.computeIfAbsent(extensionUrl, url -> new ConcurrentHashMap<>())
+		        .computeIfAbsent(code, unknownCode -> new LongAdder()).increment();
+	}
+
+	private void ensureScheduled() {
+		if (scheduler != null) {
+			return;
+		}
+
+		synchronized (this) {
+			if (scheduler == null) {
+				scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+					Thread thread = new Thread(runnable, "gpconnect-unknown-code-reporter");
+					thread.setDaemon(true);
+					return thread;
+				});
+				scheduler.scheduleAtFixedRate(this::report, REPORT_INTERVAL_SECONDS, REPORT_INTERVAL_SECONDS,
+				    TimeUnit.SECONDS);
+			}
+		}
+	}
+}
@@ -3,6 +3,7 @@ package org.openmrs.module.gpconnect.mappers.valueSets;
 import lombok.Getter;
 
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.Map;
 import java.util.stream.Collectors;
 
@@ -24,11 +25,10 @@ public enum NhsNoVerificationStatus {
 		this.display = display;
 	}
 	
-	public static Map<String, String> dict(){
-        return Arrays.stream(values())
-                .collect(Collectors.toMap(
-                        NhsNoVerificationStatus::getCode,
-                        NhsNoVerificationStatus::getDisplay
-                ));
-    }
+	private static final Map<String, String> DICT = Collections.unmodifiableMap(Arrays.stream(values())
+	        .collect(Collectors.toMap(NhsNoVerificationStatus::getCode, NhsNoVerificationStatus::getDisplay)));
+	
+	public static Map<String, String> dict() {
+		return DICT;
+	}
 }
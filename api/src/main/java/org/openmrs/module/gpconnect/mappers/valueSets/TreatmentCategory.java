@@ -5,6 +5,7 @@ import org.hl7.fhir.dstu3.model.Coding;
 import org.openmrs.module.gpconnect.util.CodeSystems;
 
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.Map;
 import java.util.stream.Collectors;
 
@@ -24,13 +25,12 @@ public enum TreatmentCategory {
 		this.display = display;
 	}
 	
-	public static Map<String, String> dict(){
-        return Arrays.stream(values())
-                .collect(Collectors.toMap(
-                        TreatmentCategory::getCode,
-                        TreatmentCategory::getDisplay
-                ));
-    }
+	private static final Map<String, String> DICT = Collections.unmodifiableMap(Arrays.stream(values())
+	        .collect(Collectors.toMap(TreatmentCategory::getCode, TreatmentCategory::getDisplay)));
+	
+	public static Map<String, String> dict() {
+		return DICT;
+	}
 	
 	public Coding getCoding() {
 		return new Coding(CodeSystems.TREATMENT_CATEGORY, code, display);
@@ -2,6 +2,7 @@ package org.openmrs.module.gpconnect.models;
 
 import lombok.EqualsAndHashCode;
 import lombok.Getter;
+import lombok.Setter;
 import lombok.ToString;
 import org.openmrs.Auditable;
 import org.openmrs.OpenmrsObject;
@@ -29,8 +30,13 @@ public class OpenmrsOrganization implements OpenmrsObject, Auditable {
 	String uuid;
 	
 	@Column
+	@Setter
 	String name;
 	
+	@Column(name = "ods_code")
+	@Setter
+	String odsCode;
+	
 	@Override
 	public Integer getId() {
 		return this.id;
@@ -0,0 +1,53 @@
+package org.openmrs.module.gpconnect.providers;
+
+import ca.uhn.fhir.rest.api.server.IBundleProvider;
+import java.util.Date;
+import java.util.List;
+import java.util.function.Function;
+import org.hl7.fhir.instance.model.api.IBaseResource;
+import org.hl7.fhir.instance.model.api.IPrimitiveType;
+
+/**
+ * Wraps a fhir2 bundle provider so that GP Connect post-processing is only applied to the page HAPI
+ * actually asks for, rather than to the whole result set up front.
+ */
+public class GPConnectBundleProvider implements IBundleProvider {
+
+	private final IBundleProvider provider;
+
+	private final Function<List<IBaseResource>, List<IBaseResource>> pageMapper;
+
+	public GPConnectBundleProvider(IBundleProvider provider, Function<List<IBaseResource>, List<IBaseResource>> pageMapper) {
+		this.provider = provider;
+		this.pageMapper = pageMapper;
+	}
+
+	@Override
+	public IPrimitiveType<Date> getPublished() {
+		return provider.getPublished();
+	}
+
+	@Override
+	public List<IBaseResource> getResources(int fromIndex, int toIndex) {
+		return pageMapper.apply(provider.getResources(fromIndex, toIndex));
+	}
+
+	/**
+	 * The upstream search id is not exposed, otherwise HAPI would page through the unprocessed fhir2
+	 * provider instead of this one.
+	 */
+	@Override
+	public String getUuid() {
+		return null;
+	}
+
+	@Override
+	public Integer preferredPageSize() {
+		return provider.preferredPageSize();
+	}
+
+	@Override
+	public Integer size() {
+		return provider.size();
+	}
+}
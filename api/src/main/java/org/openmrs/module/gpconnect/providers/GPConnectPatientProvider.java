@@ -18,11 +18,9 @@ import ca.uhn.fhir.rest.api.server.IBundleProvider;
 import ca.uhn.fhir.rest.param.DateRangeParam;
 import ca.uhn.fhir.rest.param.StringAndListParam;
 import ca.uhn.fhir.rest.param.TokenAndListParam;
-import ca.uhn.fhir.rest.param.TokenOrListParam;
 import ca.uhn.fhir.rest.param.TokenParam;
-import ca.uhn.fhir.rest.server.BundleProviders;
 import ca.uhn.fhir.rest.server.exceptions.ResourceNotFoundException;
-import java.util.Collections;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.stream.Collectors;
 import javax.validation.constraints.NotNull;
@@ -31,12 +29,13 @@ import lombok.Setter;
 import org.hl7.fhir.convertors.conv30_40.Patient30_40;
 import org.hl7.fhir.dstu3.model.*;
 import org.hl7.fhir.instance.model.api.IBaseResource;
-import org.hl7.fhir.r4.model.Identifier;
-import org.openmrs.module.fhir2.api.FhirPatientService;
 import org.openmrs.module.fhir2.providers.r3.PatientFhirResourceProvider;
 import org.openmrs.module.gpconnect.exceptions.GPConnectExceptions;
 import org.openmrs.module.gpconnect.mappers.NhsPatientMapper;
 import org.openmrs.module.gpconnect.services.GPConnectPatientService;
+import org.openmrs.module.gpconnect.services.PatientIdentifierTypeNameCache;
+import org.openmrs.module.gpconnect.util.GPConnectProfile;
+import org.openmrs.module.gpconnect.util.IdentifierToken;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.context.annotation.Primary;
@@ -47,15 +46,15 @@ import org.springframework.stereotype.Component;
 @Setter(AccessLevel.PACKAGE)
 @Primary
 public class GPConnectPatientProvider extends PatientFhirResourceProvider {
-	@Autowired
-	private FhirPatientService patientService;
-
 	@Autowired
 	NhsPatientMapper nhsPatientMapper;
 
 	@Autowired
 	private GPConnectPatientService gpConnectPatientService;
 
+	@Autowired
+	private PatientIdentifierTypeNameCache identifierTypeNameCache;
+
 	@Operation(name="$setup")
 	public MethodOutcome createPatient(@OperationParam(name = "patient", type = Patient.class)  Patient patient){
 		gpConnectPatientService.save(patient, false);
@@ -77,9 +76,7 @@ public class GPConnectPatientProvider extends PatientFhirResourceProvider {
 
 	@Operation(name = "$gpc.registerpatient")
 	public Bundle registerPatient(@OperationParam(name = "registerPatient", type = Patient.class) Patient patient) {
-		org.openmrs.Patient newPatient = gpConnectPatientService.save(patient, true);
-
-		Patient createdPatient = this.getPatientById(new IdType(newPatient.getUuid()));
+		Patient createdPatient = gpConnectPatientService.register(patient);
 
 		return searchSetBundleWith(createdPatient);
 	}
@@ -102,19 +99,32 @@ public class GPConnectPatientProvider extends PatientFhirResourceProvider {
                                           @OptionalParam(name = "_lastUpdated") DateRangeParam lastUpdated,
                                           @Sort SortSpec sort) {
 
+		if (deceased != null) {
+			throw GPConnectExceptions.invalidRequestException("Invalid parameter in request", BAD_REQUEST);
+		}
+
 		validateIdentifierStructure(identifier);
 
 		IBundleProvider provider = super.searchPatients(name, given, family, identifier, gender, birthDate,
-				deathDate, deceased, city, state, postalCode, country, id, lastUpdated, sort);
+				deathDate, notDeceased(), city, state, postalCode, country, id, lastUpdated, sort);
 
-		List<IBaseResource> resources = provider.getResources(0, 0);
+		return new GPConnectBundleProvider(provider, this::enhancePatients);
+	}
 
-		List<IBaseResource> r3Patients = resources.stream()
-				.map(patient -> nhsPatientMapper.enhance((Patient) patient))
-				.filter(patient -> patient.getDeceasedDateTimeType() == null)
+	/**
+	 * GP Connect never returns deceased patients, so the search always filters on deceased=false and a
+	 * client-supplied deceased parameter is rejected rather than combined with it.
+	 */
+	private static TokenAndListParam notDeceased() {
+		return new TokenAndListParam().addAnd(new TokenParam("false"));
+	}
+
+	private List<IBaseResource> enhancePatients(List<IBaseResource> resources) {
+		List<Patient> patients = resources.stream()
+				.map(patient -> (Patient) patient)
 				.collect(Collectors.toList());
 
-		return BundleProviders.newList(r3Patients);
+		return new ArrayList<>(nhsPatientMapper.enhanceAll(patients));
 	}
 
 	private Bundle searchSetBundleWith(Patient createdPatient) {
@@ -123,42 +133,31 @@ public class GPConnectPatientProvider extends PatientFhirResourceProvider {
 		entryComponent.setResource(createdPatient);
 		bundle.addEntry(entryComponent);
 		bundle.setType(Bundle.BundleType.SEARCHSET);
-		bundle.setMeta(new Meta().setProfile(Collections.singletonList(new UriType(
-			"https://fhir.nhs.uk/STU3/StructureDefinition/GPConnect-Searchset-Bundle-1"))));
+		bundle.setMeta(GPConnectProfile.SEARCHSET_BUNDLE.meta());
 		return bundle;
 	}
 
 	private void validateIdentifierStructure(TokenAndListParam identifier) {
-		if (identifier == null) {
+		if (identifier == null || identifier.getValuesAsQueryTokens().size() > 1) {
 			throw GPConnectExceptions.invalidRequestException("Exactly 1 identifier needs to be provided", BAD_REQUEST);
 		}
 
-		if (identifier != null) {
-
-			List<TokenOrListParam> identifierParams = identifier.getValuesAsQueryTokens();
-
-			if (identifierParams.size() > 1) {
-				throw GPConnectExceptions.invalidRequestException("Exactly 1 identifier needs to be provided", BAD_REQUEST);
-			}
+		IdentifierToken token = IdentifierToken.of(identifier.getValuesAsQueryTokens().get(0).getValuesAsQueryTokens().get(0));
+		String identifierTypeName = token.getSystem();
 
-			TokenParam tokenParam = identifierParams.get(0).getValuesAsQueryTokens().get(0);
-			String identifierTypeName = tokenParam.getSystem();
-			String identifierValue = tokenParam.getValue();
-
-			if (identifierTypeName == null || identifierTypeName.isEmpty()) {
-				throw GPConnectExceptions.unprocessableEntityException(
-					String.format("One or both of the identifier system and value are missing from given identifier : %s", identifierValue), INVALID_PARAMETER);
-			}
+		if (!token.hasSystem()) {
+			throw GPConnectExceptions.unprocessableEntityException(
+				String.format("One or both of the identifier system and value are missing from given identifier : %s", token.getValue()), INVALID_PARAMETER);
+		}
 
-			if (identifierValue.isEmpty()) {
-				throw GPConnectExceptions.unprocessableEntityException(
-					String.format("One or both of the identifier system and value are missing from given identifier : %s", identifierTypeName + "|"), INVALID_PARAMETER);
-			}
+		if (!token.hasValue()) {
+			throw GPConnectExceptions.unprocessableEntityException(
+				String.format("One or both of the identifier system and value are missing from given identifier : %s", identifierTypeName + "|"), INVALID_PARAMETER);
+		}
 
-			if (patientService.getPatientIdentifierTypeByIdentifier(new Identifier().setType(new org.hl7.fhir.r4.model.CodeableConcept().setText(identifierTypeName))) == null){
-				throw GPConnectExceptions.invalidRequestException(
-					String.format("The given identifier system code (%s) is not an expected code", identifierTypeName), INVALID_IDENTIFIER_SYSTEM);
-			}
+		if (!identifierTypeNameCache.contains(identifierTypeName)) {
+			throw GPConnectExceptions.invalidRequestException(
+				String.format("The given identifier system code (%s) is not an expected code", identifierTypeName), INVALID_IDENTIFIER_SYSTEM);
 		}
 	}
 }
@@ -1,9 +1,6 @@
 package org.openmrs.module.gpconnect.providers;
 
 import static org.openmrs.module.gpconnect.exceptions.GPConnectCoding.BAD_REQUEST;
-import static org.openmrs.module.gpconnect.exceptions.GPConnectCoding.INVALID_IDENTIFIER_SYSTEM;
-import static org.openmrs.module.gpconnect.exceptions.GPConnectCoding.INVALID_IDENTIFIER_VALUE;
-import static org.openmrs.module.gpconnect.exceptions.GPConnectCoding.INVALID_PARAMETER;
 import static org.openmrs.module.gpconnect.exceptions.GPConnectCoding.PRACTITIONER_NOT_FOUND;
 
 import ca.uhn.fhir.rest.annotation.IdParam;
@@ -14,11 +11,12 @@ import ca.uhn.fhir.rest.annotation.Read;
 import ca.uhn.fhir.rest.annotation.Search;
 import ca.uhn.fhir.rest.api.MethodOutcome;
 import ca.uhn.fhir.rest.api.server.IBundleProvider;
+import ca.uhn.fhir.rest.api.server.RequestDetails;
 import ca.uhn.fhir.rest.param.DateRangeParam;
 import ca.uhn.fhir.rest.param.StringAndListParam;
 import ca.uhn.fhir.rest.param.TokenAndListParam;
-import ca.uhn.fhir.rest.param.TokenParam;
-import ca.uhn.fhir.rest.server.BundleProviders;
+import ca.uhn.fhir.rest.server.IResourceProvider;
+import ca.uhn.fhir.rest.server.SimpleBundleProvider;
 import ca.uhn.fhir.rest.server.exceptions.ResourceNotFoundException;
 import java.util.Collections;
 import java.util.List;
@@ -27,49 +25,86 @@ import javax.validation.constraints.NotNull;
 import lombok.AccessLevel;
 import lombok.Setter;
 import org.hl7.fhir.convertors.conv30_40.Practitioner30_40;
+import org.hl7.fhir.dstu3.model.Bundle;
 import org.hl7.fhir.dstu3.model.IdType;
-import org.hl7.fhir.dstu3.model.Meta;
 import org.hl7.fhir.dstu3.model.Practitioner;
-import org.hl7.fhir.dstu3.model.UriType;
 import org.hl7.fhir.instance.model.api.IBaseResource;
 import org.openmrs.module.fhir2.api.FhirPractitionerService;
-import org.openmrs.module.fhir2.providers.r3.PractitionerFhirResourceProvider;
 import org.openmrs.module.gpconnect.exceptions.GPConnectExceptions;
+import org.openmrs.module.gpconnect.services.GPConnectPractitionerService;
+import org.openmrs.module.gpconnect.services.PractitionerBatchImportService;
+import org.openmrs.module.gpconnect.services.PractitionerResourceCache;
+import org.openmrs.module.gpconnect.translators.PractitionerTranslator;
+import org.openmrs.module.gpconnect.util.GPConnectProfile;
+import org.openmrs.module.gpconnect.util.IdentifierToken;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
-import org.springframework.context.annotation.Primary;
 import org.springframework.stereotype.Component;
 
 @Component
 @Qualifier("fhirR3Resources")
 @Setter(AccessLevel.PACKAGE)
-@Primary
-public class GPConnectPractitionerProvider extends PractitionerFhirResourceProvider {
+public class GPConnectPractitionerProvider implements IResourceProvider {
 	
 	@Autowired
 	private FhirPractitionerService practitionerService;
+
+	@Autowired
+	private PractitionerBatchImportService practitionerBatchImportService;
+
+	@Autowired
+	private PractitionerResourceCache practitionerResourceCache;
+
+	@Autowired
+	private GPConnectPractitionerService gpConnectPractitionerService;
+	
+	@Override
+	public Class<? extends IBaseResource> getResourceType() {
+		return Practitioner.class;
+	}
 	
 	@Operation(name = "$setup")
 	public MethodOutcome setupPractitioner(
 			@OperationParam(name = "practitioner", type = Practitioner.class) Practitioner practitioner) {
 		practitionerService.create(Practitioner30_40.convertPractitioner(practitioner));
+		practitionerResourceCache.invalidate(practitioner.getIdElement().getIdPart());
 		return new MethodOutcome();
 	}
 
-	@Override
+	@Operation(name = "$setup-batch")
+	public Bundle setupPractitioners(
+			@OperationParam(name = "practitioners", type = Bundle.class) Bundle practitioners) {
+		if (practitioners == null) {
+			throw GPConnectExceptions.invalidRequestException("A bundle of practitioners needs to be provided", BAD_REQUEST);
+		}
+		return practitionerBatchImportService.importPractitioners(practitioners);
+	}
+
 	@Read
 	public Practitioner getPractitionerById(@IdParam @NotNull IdType id) {
+		Practitioner cached = practitionerResourceCache.get(id.getIdPart());
+		if (cached != null) {
+			return cached;
+		}
+
+		org.hl7.fhir.r4.model.Practitioner found;
 		try {
-			Practitioner practitioner = super.getPractitionerById(id);
-			return addMeta(practitioner);
+			found = practitionerService.get(id.getIdPart());
 		}
 		catch (ResourceNotFoundException e) {
+			found = null;
+		}
+
+		if (found == null) {
 			throw GPConnectExceptions.resourceNotFoundException(
 				"No practitioner details found for practitioner ID: Practitioner/" + id.getIdPart(), PRACTITIONER_NOT_FOUND);
 		}
+
+		Practitioner practitioner = addMeta(Practitioner30_40.convertPractitioner(found));
+		practitionerResourceCache.put(practitioner);
+		return practitioner;
 	}
 
-	@Override
 	@Search
 	public IBundleProvider searchForPractitioners(@OptionalParam(name = "name") StringAndListParam name,
 		                                          @OptionalParam(name = "identifier") TokenAndListParam identifier,
@@ -80,55 +115,60 @@ public class GPConnectPractitionerProvider extends PractitionerFhirResourceProvi
 											      @OptionalParam(name = "address-postalcode") StringAndListParam postalCode,
 												  @OptionalParam(name = "address-country") StringAndListParam country,
 												  @OptionalParam(name = "_id") TokenAndListParam id,
-												  @OptionalParam(name = "_lastUpdated") DateRangeParam lastUpdated) {
-		validateIdentifierStructure(identifier);
-
-		IBundleProvider provider = super.searchForPractitioners(name, identifier, null, null, null, null, null, null, null, null);
-		List<IBaseResource> resources = provider.getResources(0, 0);
+												  @OptionalParam(name = "_lastUpdated") DateRangeParam lastUpdated,
+												  RequestDetails requestDetails) {
+		// the other fhir2 Practitioner parameters stay declared so that they are rejected, as GP Connect searches by SDS user id alone
+		rejectUnsupported(name);
+		rejectUnsupported(given);
+		rejectUnsupported(family);
+		rejectUnsupported(city);
+		rejectUnsupported(state);
+		rejectUnsupported(postalCode);
+		rejectUnsupported(country);
+		rejectUnsupported(id);
+		rejectUnsupported(lastUpdated);
 
-		List<IBaseResource> r3Practitioners = resources.stream()
-				.map(practitioner -> addMeta((Practitioner) practitioner))
-				.collect(Collectors.toList());
+		IdentifierToken sdsUserId = IdentifierSearchParameter.validate(identifier, requestDetails,
+			PractitionerTranslator.FHIR_NHS_SDS_USER_ID_SYSTEM);
 
-		return BundleProviders.newList(r3Practitioners);
-	}
-
-	private void validateIdentifierStructure(TokenAndListParam identifier) {
-		if (identifier == null || identifier.getValuesAsQueryTokens().size() != 1) {
-			throw GPConnectExceptions.invalidRequestException("Exactly 1 identifier needs to be provided", BAD_REQUEST);
+		Practitioner cached = practitionerResourceCache.getBySdsUserId(sdsUserId.getValue());
+		if (cached != null) {
+			return new SimpleBundleProvider(Collections.singletonList(cached));
 		}
 
-		TokenParam tokenParam = identifier.getValuesAsQueryTokens().get(0).getValuesAsQueryTokens().get(0);
-		String identifierSystem = tokenParam.getSystem();
-		String identifierValue = tokenParam.getValue();
+		IBundleProvider provider = gpConnectPractitionerService.searchBySdsUserId(sdsUserId.getValue());
 
-		if (identifierValue == null || identifierValue.isEmpty() || identifierSystem == null || identifierSystem.isEmpty()) {
-			throw GPConnectExceptions.unprocessableEntityException(
-				String.format("One or both of the identifier system and value are missing from given identifier : %s|%s", identifierSystem, identifierValue), INVALID_PARAMETER);
-		}
+		return new GPConnectBundleProvider(provider, resources -> cacheSingleResult(provider, addMeta(resources)));
+	}
 
-		if (!identifierSystem.equals("https://fhir.nhs.uk/Id/sds-user-id")) {
-			throw GPConnectExceptions.invalidRequestException("The given identifier system code (" + identifierSystem + ") is not an expected code", INVALID_IDENTIFIER_SYSTEM);
+	/**
+	 * Rejects the parameter the way the server rejects any other parameter it does not know.
+	 */
+	private static void rejectUnsupported(Object value) {
+		if (value != null) {
+			throw GPConnectExceptions.invalidRequestException("Invalid parameter in request", BAD_REQUEST);
 		}
+	}
 
-		if (identifierValue.split(",").length == 2) {
-			throw GPConnectExceptions.invalidRequestException("Multiple values detected for non-repeatable parameter 'identifier'."
-				+ "This server is not configured to allow multiple (AND/OR) values for this param.", INVALID_IDENTIFIER_VALUE);
+	/**
+	 * Only a search that found exactly one practitioner is cached, so that a cache hit by SDS user id
+	 * never hides other practitioners with the same id.
+	 */
+	private List<IBaseResource> cacheSingleResult(IBundleProvider provider, List<IBaseResource> resources) {
+		if (resources.size() == 1 && Integer.valueOf(1).equals(provider.size())) {
+			practitionerResourceCache.put((Practitioner) resources.get(0));
 		}
+		return resources;
+	}
 
-		if (identifierValue.split("\\|").length == 2) {
-			throw GPConnectExceptions.unprocessableEntityException(
-				String.format("One or both of the identifier system and value are missing from given identifier : %s|%s", identifierSystem, identifierValue), INVALID_IDENTIFIER_VALUE);
-		}
+	private List<IBaseResource> addMeta(List<IBaseResource> resources) {
+		return resources.stream()
+				.map(practitioner -> addMeta(Practitioner30_40.convertPractitioner((org.hl7.fhir.r4.model.Practitioner) practitioner)))
+				.collect(Collectors.toList());
 	}
 
 	private Practitioner addMeta(Practitioner practitioner) {
-		Meta meta = new Meta().setProfile(
-		    Collections.singletonList(new UriType(
-		            "https://fhir.nhs.uk/STU3/StructureDefinition/CareConnect-GPC-Practitioner-1"))).setVersionId(
-		    String.format("%s-1", practitioner.getId()));
-		
-		practitioner.setMeta(meta);
+		practitioner.setMeta(GPConnectProfile.PRACTITIONER.meta(String.format("%s-1", practitioner.getId())));
 		return practitioner;
 	}
 }
@@ -0,0 +1,72 @@
+package org.openmrs.module.gpconnect.providers;
+
+import static org.openmrs.module.gpconnect.exceptions.GPConnectCoding.BAD_REQUEST;
+import static org.openmrs.module.gpconnect.exceptions.GPConnectCoding.INVALID_IDENTIFIER_SYSTEM;
+import static org.openmrs.module.gpconnect.exceptions.GPConnectCoding.INVALID_IDENTIFIER_VALUE;
+import static org.openmrs.module.gpconnect.exceptions.GPConnectCoding.INVALID_PARAMETER;
+
+import ca.uhn.fhir.rest.api.server.RequestDetails;
+import ca.uhn.fhir.rest.param.TokenAndListParam;
+import org.openmrs.module.gpconnect.exceptions.GPConnectExceptions;
+import org.openmrs.module.gpconnect.util.IdentifierToken;
+
+/**
+ * Validates a search that must name exactly one identifier in a single expected system, as the
+ * Practitioner and Organization searches do.
+ */
+final class IdentifierSearchParameter {
+	
+	private IdentifierSearchParameter() {
+	}
+	
+	/**
+	 * @return the single identifier of the search
+	 */
+	static IdentifierToken validate(TokenAndListParam identifier, String expectedSystem) {
+		return validate(identifier, null, expectedSystem);
+	}
+	
+	/**
+	 * Validates the token an interceptor already parsed from the request, only building one from the
+	 * bound parameter when no interceptor handled the request.
+	 *
+	 * @return the single identifier of the search
+	 */
+	static IdentifierToken validate(TokenAndListParam identifier, RequestDetails requestDetails, String expectedSystem) {
+		if (identifier == null || identifier.getValuesAsQueryTokens().size() != 1) {
+			throw GPConnectExceptions.invalidRequestException("Exactly 1 identifier needs to be provided", BAD_REQUEST);
+		}
+		
+		IdentifierToken token = requestDetails == null ? null : IdentifierToken.from(requestDetails);
+		if (token == null) {
+			token = IdentifierToken.of(identifier.getValuesAsQueryTokens().get(0).getValuesAsQueryTokens().get(0));
+		}
+		String identifierSystem = token.getSystem();
+		String identifierValue = token.getValue();
+		
+		if (!token.hasValue() || !token.hasSystem()) {
+			throw GPConnectExceptions.unprocessableEntityException(
+			    String.format("One or both of the identifier system and value are missing from given identifier : %s|%s",
+			        identifierSystem, identifierValue), INVALID_PARAMETER);
+		}
+		
+		if (!identifierSystem.equals(expectedSystem)) {
+			throw GPConnectExceptions.invalidRequestException(
+			    "The given identifier system code (" + identifierSystem + ") is not an expected code",
+			    INVALID_IDENTIFIER_SYSTEM);
+		}
+		
+		if (token.hasMultipleValues()) {
+			throw GPConnectExceptions.invalidRequestException("Multiple values detected for non-repeatable parameter 'identifier'."
+			        + "This server is not configured to allow multiple (AND/OR) values for this param.", INVALID_IDENTIFIER_VALUE);
+		}
+		
+		if (token.hasExtraSeparators()) {
+			throw GPConnectExceptions.unprocessableEntityException(
+			    String.format("One or both of the identifier system and value are missing from given identifier : %s|%s",
+			        identifierSystem, identifierValue), INVALID_IDENTIFIER_VALUE);
+		}
+		
+		return token;
+	}
+}
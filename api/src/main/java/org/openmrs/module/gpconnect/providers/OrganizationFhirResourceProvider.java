@@ -1,13 +1,20 @@
 package org.openmrs.module.gpconnect.providers;
 
 import ca.uhn.fhir.rest.annotation.IdParam;
+import ca.uhn.fhir.rest.annotation.OptionalParam;
 import ca.uhn.fhir.rest.annotation.Read;
+import ca.uhn.fhir.rest.annotation.Search;
+import ca.uhn.fhir.rest.api.server.IBundleProvider;
+import ca.uhn.fhir.rest.param.TokenAndListParam;
 import ca.uhn.fhir.rest.server.IResourceProvider;
 import org.hl7.fhir.convertors.conv30_40.Organization30_40;
 import org.hl7.fhir.dstu3.model.IdType;
 import org.hl7.fhir.dstu3.model.Organization;
 import org.hl7.fhir.instance.model.api.IBaseResource;
 import org.openmrs.module.gpconnect.services.FhirOrganisationService;
+import org.openmrs.module.gpconnect.services.OrganizationResourceCache;
+import org.openmrs.module.gpconnect.translators.FhirOrganizationTranslator;
+import org.openmrs.module.gpconnect.util.IdentifierToken;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Component;
@@ -19,6 +26,9 @@ public class OrganizationFhirResourceProvider implements IResourceProvider {
 	@Autowired
 	FhirOrganisationService fhirOrganisationService;
 	
+	@Autowired
+	OrganizationResourceCache organizationResourceCache;
+	
 	@Override
 	public Class<? extends IBaseResource> getResourceType() {
 		return Organization.class;
@@ -26,7 +36,21 @@ public class OrganizationFhirResourceProvider implements IResourceProvider {
 	
 	@Read
 	public Organization getById(@IdParam IdType id) {
+		Organization cached = organizationResourceCache.get(id.getIdPart());
+		if (cached != null) {
+			return cached;
+		}
+		
 		org.hl7.fhir.r4.model.Organization organization = fhirOrganisationService.get(id.getIdPart());
-		return Organization30_40.convertOrganization(organization);
+		Organization converted = Organization30_40.convertOrganization(organization);
+		organizationResourceCache.put(id.getIdPart(), converted);
+		return converted;
+	}
+	
+	@Search
+	public IBundleProvider searchOrganizations(@OptionalParam(name = "identifier") TokenAndListParam identifier) {
+		IdentifierToken odsCode = IdentifierSearchParameter.validate(identifier,
+		    FhirOrganizationTranslator.ODS_ORGANIZATION_CODE_SYSTEM);
+		return new OrganizationSearchBundleProvider(fhirOrganisationService, odsCode.getValue());
 	}
 }
@@ -0,0 +1,60 @@
+package org.openmrs.module.gpconnect.providers;
+
+import ca.uhn.fhir.rest.api.server.IBundleProvider;
+import java.util.Date;
+import java.util.List;
+import java.util.stream.Collectors;
+import org.hl7.fhir.convertors.conv30_40.Organization30_40;
+import org.hl7.fhir.dstu3.model.InstantType;
+import org.hl7.fhir.instance.model.api.IBaseResource;
+import org.hl7.fhir.instance.model.api.IPrimitiveType;
+import org.openmrs.module.gpconnect.services.FhirOrganisationService;
+
+/**
+ * Pages through the organizations with a given ODS code, querying only the page HAPI asks for.
+ */
+public class OrganizationSearchBundleProvider implements IBundleProvider {
+
+	private final FhirOrganisationService fhirOrganisationService;
+
+	private final String odsCode;
+
+	private final InstantType published = InstantType.withCurrentTime();
+
+	private Integer size;
+
+	public OrganizationSearchBundleProvider(FhirOrganisationService fhirOrganisationService, String odsCode) {
+		this.fhirOrganisationService = fhirOrganisationService;
+		this.odsCode = odsCode;
+	}
+
+	@Override
+	public IPrimitiveType<Date> getPublished() {
+		return published;
+	}
+
+	@Override
+	public List<IBaseResource> getResources(int fromIndex, int toIndex) {
+		return fhirOrganisationService.searchByOdsCode(odsCode, fromIndex, toIndex).stream()
+				.map(Organization30_40::convertOrganization)
+				.collect(Collectors.toList());
+	}
+
+	@Override
+	public String getUuid() {
+		return null;
+	}
+
+	@Override
+	public Integer preferredPageSize() {
+		return null;
+	}
+
+	@Override
+	public Integer size() {
+		if (size == null) {
+			size = fhirOrganisationService.countByOdsCode(odsCode);
+		}
+		return size;
+	}
+}
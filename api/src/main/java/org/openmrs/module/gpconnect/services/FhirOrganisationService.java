@@ -1,9 +1,19 @@
 package org.openmrs.module.gpconnect.services;
 
+import java.util.List;
+
 import org.hl7.fhir.r4.model.Organization;
 import org.openmrs.module.fhir2.api.FhirService;
 
 public interface FhirOrganisationService extends FhirService<Organization> {
 	
 	Organization get(String id);
+	
+	int countByOdsCode(String odsCode);
+	
+	/**
+	 * @return the organizations with the given ODS code from {@code fromIndex} (inclusive) to
+	 *         {@code toIndex} (exclusive)
+	 */
+	List<Organization> searchByOdsCode(String odsCode, int fromIndex, int toIndex);
 }
@@ -5,67 +5,104 @@ import static org.openmrs.module.gpconnect.exceptions.GPConnectCoding.DUPLICATE_
 import static org.openmrs.module.gpconnect.exceptions.GPConnectCoding.INVALID_NHS_NUMBER;
 import static org.openmrs.module.gpconnect.exceptions.GPConnectCoding.INVALID_RESOURCE;
 
-import ca.uhn.fhir.rest.param.TokenAndListParam;
-import ca.uhn.fhir.rest.param.TokenParam;
-
 import java.util.*;
 import java.util.stream.Collectors;
 
 import org.apache.commons.lang3.time.DateUtils;
 import org.apache.xpath.operations.Bool;
 import org.hl7.fhir.convertors.conv30_40.Patient30_40;
+import org.hibernate.exception.ConstraintViolationException;
 import org.hl7.fhir.dstu3.model.*;
-import org.openmrs.module.fhir2.api.FhirPatientService;
 import org.openmrs.module.fhir2.api.dao.FhirPatientDao;
-import org.openmrs.module.fhir2.api.search.param.SearchParameterMap;
+import org.openmrs.module.fhir2.api.translators.PatientTranslator;
 import org.openmrs.module.gpconnect.entity.NhsPatient;
 import org.openmrs.module.gpconnect.exceptions.GPConnectCoding;
 import org.openmrs.module.gpconnect.exceptions.GPConnectExceptions;
 import org.openmrs.module.gpconnect.mappers.NhsPatientMapper;
 import org.openmrs.module.gpconnect.mappers.valueSets.RegistrationType;
-import org.openmrs.module.gpconnect.util.Extensions;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
 
 @Component
 public class GPConnectPatientService {
 
-    @Autowired
-    FhirPatientService fhirPatientService;
+    static final String NHS_NUMBER_INDEX = "nhs_patient_nhs_number_idx";
 
     @Autowired
     FhirPatientDao fhirPatientDao;
 
+    @Autowired
+    PatientTranslator patientTranslator;
+
     @Autowired
     NhsPatientMapper nhsPatientMapper;
 
     @Autowired
     NhsPatientService nhsPatientService;
 
+    @Transactional
     public org.openmrs.Patient save(Patient dstu3Patient, boolean isTemporaryPatient) {
         PatientRegistrationValidator.validate(dstu3Patient, isTemporaryPatient);
+        rejectDuplicateNhsNumber(dstu3Patient);
 
-        String nhsNumber = dstu3Patient.getIdentifier().get(0).getValue();
-        Collection<org.openmrs.Patient> patients = findByNhsNumber(nhsNumber);
+        org.openmrs.Patient newPatient = createOpenmrsPatient(dstu3Patient);
+        createNhsPatient(dstu3Patient, newPatient, isTemporaryPatient);
 
-        if (patients.size() > 0) {
-            throw GPConnectExceptions.resourceVersionConflictException("Nhs Number already in use", DUPLICATE_REJECTED);
-        }
+        return newPatient;
+    }
+
+    @Transactional
+    public Patient register(Patient dstu3Patient) {
+        PatientRegistrationValidator.validate(dstu3Patient, true);
+        rejectDuplicateNhsNumber(dstu3Patient);
+
+        org.openmrs.Patient newPatient = createOpenmrsPatient(dstu3Patient);
+        NhsPatient nhsPatient = createNhsPatient(dstu3Patient, newPatient, true);
 
+        Patient registeredPatient = Patient30_40.convertPatient(patientTranslator.toFhirResource(newPatient));
+        return nhsPatientMapper.enhance(registeredPatient, nhsPatient);
+    }
+
+    private org.openmrs.Patient createOpenmrsPatient(Patient dstu3Patient) {
         org.hl7.fhir.r4.model.Patient r4Patient
                 = Patient30_40.convertPatient(dstu3Patient);
-        fhirPatientService.create(r4Patient);
+        return fhirPatientDao.createOrUpdate(patientTranslator.toOpenmrsType(r4Patient));
+    }
 
-        org.openmrs.Patient newPatient = findByNhsNumber(nhsNumber).iterator().next();
+    private void rejectDuplicateNhsNumber(Patient dstu3Patient) {
+        String nhsNumber = dstu3Patient.getIdentifier().get(0).getValue();
+        if (nhsPatientService.findPatientIdByNhsNumber(nhsNumber) != null || nhsPatientService.isNhsNumberAssigned(nhsNumber)) {
+            throw GPConnectExceptions.resourceVersionConflictException("Nhs Number already in use", DUPLICATE_REJECTED);
+        }
+    }
+
+    private NhsPatient createNhsPatient(Patient dstu3Patient, org.openmrs.Patient newPatient, boolean isTemporaryPatient) {
         NhsPatient nhsPatient = nhsPatientMapper.toNhsPatient(dstu3Patient, newPatient.getPatientId());
 
         if(isTemporaryPatient) {
             setTempRegistrationDetails(nhsPatient);
         }
 
-        nhsPatientService.saveOrUpdate(nhsPatient);
+        try {
+            nhsPatientService.create(nhsPatient);
+        } catch (ConstraintViolationException e) {
+            if (!isNhsNumberIndexViolation(e)) {
+                throw e;
+            }
+            throw GPConnectExceptions.resourceVersionConflictException("Nhs Number already in use", DUPLICATE_REJECTED);
+        }
+
+        return nhsPatient;
+    }
 
-        return newPatient;
+    /**
+     * MySQL 8 reports the violated key qualified by its table, e.g. nhs_patient.nhs_patient_nhs_number_idx,
+     * so the index is matched on the end of the constraint name.
+     */
+    private static boolean isNhsNumberIndexViolation(ConstraintViolationException e) {
+        String constraintName = e.getConstraintName();
+        return constraintName != null && constraintName.toLowerCase(Locale.ROOT).endsWith(NHS_NUMBER_INDEX);
     }
 
     private void setTempRegistrationDetails(NhsPatient nhsPatient) {
@@ -74,15 +111,4 @@ public class GPConnectPatientService {
         nhsPatient.setRegistrationStart(registrationStartDate);
         nhsPatient.setRegistrationEnd(DateUtils.addMonths(registrationStartDate, 3));
     }
-
-    private Collection<org.openmrs.Patient> findByNhsNumber(String nhsNumber) {
-        TokenAndListParam identifier = new TokenAndListParam()
-                .addAnd(new TokenParam(Extensions.NHS_NUMBER_SYSTEM, nhsNumber));
-
-        SearchParameterMap params = (new SearchParameterMap()).addParameter("identifier.search.handler", identifier);
-
-        List<String> resultUuids = fhirPatientDao.getSearchResultUuids(params);
-        Collection<org.openmrs.Patient> patients = fhirPatientDao.getSearchResults(params, resultUuids);
-        return patients;
-    }
 }
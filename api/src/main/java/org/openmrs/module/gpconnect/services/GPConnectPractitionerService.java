@@ -0,0 +1,35 @@
+package org.openmrs.module.gpconnect.services;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import ca.uhn.fhir.rest.api.server.IBundleProvider;
+import ca.uhn.fhir.rest.server.SimpleBundleProvider;
+import org.hl7.fhir.instance.model.api.IBaseResource;
+import org.openmrs.module.gpconnect.dao.ProviderDao;
+import org.openmrs.module.gpconnect.translators.PractitionerTranslator;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+@Component
+public class GPConnectPractitionerService {
+
+    @Autowired
+    ProviderDao providerDao;
+
+    @Autowired
+    PractitionerTranslator practitionerTranslator;
+
+    /**
+     * @return the R4 practitioners whose SDS user id matches, translated while their attributes are
+     *         still attached to the session
+     */
+    @Transactional(readOnly = true)
+    public IBundleProvider searchBySdsUserId(String sdsUserId) {
+        List<IBaseResource> practitioners = providerDao.getBySdsUserId(sdsUserId).stream()
+                .map(practitionerTranslator::toFhirResource)
+                .collect(Collectors.toList());
+        return new SimpleBundleProvider(practitioners);
+    }
+}
@@ -0,0 +1,18 @@
+package org.openmrs.module.gpconnect.services;
+
+import org.hl7.fhir.dstu3.model.Location;
+import org.openmrs.module.gpconnect.util.ResourceCache;
+import org.springframework.stereotype.Component;
+
+/**
+ * STU3 locations as served by the Location read, keyed by uuid.
+ */
+@Component
+public class LocationResourceCache extends ResourceCache<Location> {
+	
+	static final int CACHE_SIZE = 1000;
+	
+	public LocationResourceCache() {
+		super(CACHE_SIZE);
+	}
+}
@@ -1,64 +1,50 @@
 package org.openmrs.module.gpconnect.services;
 
-import java.util.Arrays;
-import java.util.List;
-import java.util.stream.Collectors;
-
 public class NhsNumberValidator {
 
-    public static final String DIGITS = "1234567890";
     private static final int NHS_NUMBER_LENGTH = 10;
     private static final int Modulo11 = 11;
 
-    public static boolean validate(String nhsNumber) {
-
-        return isValidLength(nhsNumber) && validateDigitsAndCheckDigit(nhsNumber);
-    }
+    public static boolean validate(CharSequence nhsNumber) {
+        if (nhsNumber == null || nhsNumber.length() != NHS_NUMBER_LENGTH) {
+            return false;
+        }
 
-    private static boolean isValidLength(String nhsNumber) {
-        return nhsNumber.length() == NHS_NUMBER_LENGTH;
-    }
+        int sum = 0;
+        for (int index = 0; index < NHS_NUMBER_LENGTH - 1; index++) {
+            int digit = digitAt(nhsNumber, index);
+            if (digit < 0) {
+                return false;
+            }
+            sum += (Modulo11 - (index + 1)) * digit;
+        }
 
-    public static boolean isMatchingCheckDigit(List<Integer> nhsNumberList){
-        List<Integer> validNumbers = Arrays.asList(0, 1, 2, 3, 4, 5, 6, 7, 8, 9);
-        int checkDigit = calculateCheckDigit(nhsNumberList);
-        return validNumbers.contains(checkDigit) && checkDigit == nhsNumberList.get(9);
+        int lastDigit = digitAt(nhsNumber, NHS_NUMBER_LENGTH - 1);
+        return lastDigit >= 0 && calculateCheckDigit(sum) == lastDigit;
     }
 
-    private static int calculateCheckDigit(List<Integer> digits)
-    {
-        int sum = 0;
-        for(int index = 1; index <= 9; index++)
-        {
-            final int scalar = Modulo11 - index;
-            final int scaledDigit = scalar * digits.get(index - 1);
-            sum += scaledDigit;
+    public static boolean[] validateAll(CharSequence[] nhsNumbers) {
+        boolean[] results = new boolean[nhsNumbers.length];
+        for (int index = 0; index < nhsNumbers.length; index++) {
+            results[index] = validate(nhsNumbers[index]);
         }
+        return results;
+    }
 
+    /**
+     * A check digit of 10 can never match a single digit, so those numbers are rejected as invalid.
+     */
+    private static int calculateCheckDigit(int sum) {
         final int remainder = sum % Modulo11;
         if (remainder == 0) {
             return 0;
-        };
+        }
         return Modulo11 - remainder;
     }
 
-    private static boolean validateDigitsAndCheckDigit(String nhsNumber) {
-        return areDigitsValid(nhsNumber) && checkDigitMatchesLastNumber(nhsNumber);
-    }
-
-    private static boolean checkDigitMatchesLastNumber(String nhsNumber) {
-        List<Integer> allDigits = Arrays.stream(nhsNumber.split(""))
-                .map(Integer::parseInt)
-                .collect(Collectors.toList());
-
-        return isMatchingCheckDigit(allDigits);
-    }
-
-    private static boolean areDigitsValid(String nhsNumber) {
-        return nhsNumber.codePoints()
-                    .mapToObj(c -> String.valueOf((char) c))
-                    .allMatch(DIGITS::contains);
+    private static int digitAt(CharSequence nhsNumber, int index) {
+        char c = nhsNumber.charAt(index);
+        return c >= '0' && c <= '9' ? c - '0' : -1;
     }
 
 }
-
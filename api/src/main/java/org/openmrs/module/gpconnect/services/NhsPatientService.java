@@ -2,20 +2,107 @@ package org.openmrs.module.gpconnect.services;
 
 import org.openmrs.module.gpconnect.dao.NhsPatientDao;
 import org.openmrs.module.gpconnect.entity.NhsPatient;
+import org.openmrs.module.gpconnect.util.LruCache;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
 
 @Component
 public class NhsPatientService {
 	
+	static final int CACHE_SIZE = 10000;
+	
 	@Autowired
 	NhsPatientDao nhsPatientDao;
 	
+	/**
+	 * Holds detached copies rather than the entities of the session that loaded them, and hands out a
+	 * fresh copy on every hit, so callers can neither see nor make changes outside their own session.
+	 */
+	private final LruCache<Long, NhsPatient> cache = new LruCache<>(CACHE_SIZE);
+	
 	public NhsPatient findById(Long id) {
-		return nhsPatientDao.getPatientById(id);
+		NhsPatient cached = cache.get(id);
+		if (cached != null) {
+			return cached.copy();
+		}
+		
+		NhsPatient nhsPatient = nhsPatientDao.getPatientById(id);
+		if (nhsPatient != null) {
+			cache.put(id, nhsPatient.copy());
+		}
+		return nhsPatient;
+	}
+	
+	public Long findPatientIdByNhsNumber(String nhsNumber) {
+		return nhsPatientDao.findPatientIdByNhsNumber(nhsNumber);
+	}
+	
+	public boolean isNhsNumberAssigned(String nhsNumber) {
+		return nhsPatientDao.isNhsNumberAssigned(nhsNumber);
+	}
+	
+	public Map<Long, NhsPatient> findAllByIds(Collection<Long> ids) {
+		Map<Long, NhsPatient> nhsPatients = cache.getAll(ids);
+		nhsPatients.replaceAll((id, cached) -> cached.copy());
+		
+		List<Long> missingIds = ids.stream()
+		        .filter(id -> !nhsPatients.containsKey(id))
+		        .collect(Collectors.toList());
+		
+		for (NhsPatient nhsPatient : nhsPatientDao.findAllByIds(missingIds)) {
+			cache.put(nhsPatient.getId(), nhsPatient.copy());
+			nhsPatients.put(nhsPatient.getId(), nhsPatient);
+		}
+		return nhsPatients;
+	}
+	
+	public Map<String, Integer> getPatientIdsByUuids(Collection<String> uuids) {
+		return nhsPatientDao.getPatientIdsByUuids(uuids);
+	}
+	
+	public void create(NhsPatient nhsPatient) {
+		invalidate(nhsPatient.getId());
+		nhsPatientDao.create(nhsPatient);
 	}
 	
 	public void saveOrUpdate(NhsPatient nhsPatient) {
+		invalidate(nhsPatient.getId());
 		nhsPatientDao.saveOrUpdate(nhsPatient);
 	}
+	
+	public long getHits() {
+		return cache.getHits();
+	}
+	
+	public long getMisses() {
+		return cache.getMisses();
+	}
+	
+	/**
+	 * Evicts the entry now and again once the surrounding transaction completes, so a concurrent read
+	 * of the uncommitted row cannot put a stale copy back into the cache.
+	 */
+	private void invalidate(Long id) {
+		if (id == null) {
+			return;
+		}
+		
+		cache.invalidate(id);
+		if (TransactionSynchronizationManager.isSynchronizationActive()) {
+			TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+				
+				@Override
+				public void afterCompletion(int status) {
+					cache.invalidate(id);
+				}
+			});
+		}
+	}
 }
@@ -0,0 +1,19 @@
+package org.openmrs.module.gpconnect.services;
+
+import org.hl7.fhir.dstu3.model.Organization;
+import org.openmrs.module.gpconnect.util.ResourceCache;
+import org.springframework.stereotype.Component;
+
+/**
+ * STU3 organizations as served by the Organization read, keyed by uuid. The organization table has no
+ * version column, so a write evicts the organization's entry instead.
+ */
+@Component
+public class OrganizationResourceCache extends ResourceCache<Organization> {
+	
+	static final int CACHE_SIZE = 1000;
+	
+	public OrganizationResourceCache() {
+		super(CACHE_SIZE);
+	}
+}
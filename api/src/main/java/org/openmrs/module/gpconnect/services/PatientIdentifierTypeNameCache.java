@@ -0,0 +1,73 @@
+package org.openmrs.module.gpconnect.services;
+
+import org.openmrs.module.gpconnect.dao.PatientIdentifierTypeDao;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Names of the unretired patient identifier types, which are the identifier systems a patient search
+ * accepts. Loaded when the module starts and reloaded on first use after {@link #invalidate()}. Names
+ * are compared ignoring case, as the database's default collation does.
+ */
+@Component
+public class PatientIdentifierTypeNameCache {
+	
+	@Autowired
+	PatientIdentifierTypeDao patientIdentifierTypeDao;
+	
+	private volatile Set<String> names;
+	
+	public boolean contains(String name) {
+		if (name == null) {
+			return false;
+		}
+		
+		Set<String> current = names;
+		if (current == null) {
+			current = load();
+		}
+		return current.contains(normalise(name));
+	}
+	
+	public synchronized Set<String> load() {
+		Set<String> loaded = new HashSet<>();
+		for (String name : patientIdentifierTypeDao.getUnretiredNames()) {
+			loaded.add(normalise(name));
+		}
+		loaded = Collections.unmodifiableSet(loaded);
+		names = loaded;
+		return loaded;
+	}
+	
+	/**
+	 * Drops the names now and again once the surrounding transaction completes, so a load that reads
+	 * the database before the change commits cannot keep the old names.
+	 */
+	public void invalidate() {
+		clear();
+		if (TransactionSynchronizationManager.isSynchronizationActive()) {
+			TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+				
+				@Override
+				public void afterCompletion(int status) {
+					clear();
+				}
+			});
+		}
+	}
+	
+	private synchronized void clear() {
+		names = null;
+	}
+	
+	private static String normalise(String name) {
+		return name.toLowerCase(Locale.ROOT);
+	}
+}
@@ -0,0 +1,196 @@
+package org.openmrs.module.gpconnect.services;
+
+import static org.openmrs.module.gpconnect.exceptions.GPConnectCoding.DUPLICATE_REJECTED;
+import static org.openmrs.module.gpconnect.exceptions.GPConnectCoding.INVALID_RESOURCE;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import org.hl7.fhir.convertors.conv30_40.Practitioner30_40;
+import org.hl7.fhir.dstu3.model.Bundle;
+import org.hl7.fhir.dstu3.model.Practitioner;
+import org.hl7.fhir.dstu3.model.Resource;
+import org.openmrs.Provider;
+import org.openmrs.module.gpconnect.dao.ProviderDao;
+import org.openmrs.module.gpconnect.exceptions.GPConnectCoding;
+import org.openmrs.module.gpconnect.exceptions.OperationOutcomeCreator;
+import org.openmrs.module.gpconnect.translators.PractitionerTranslator;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/**
+ * Imports a bundle of practitioners. Entries are translated one by one and checked against earlier
+ * entries by uuid and SDS user id. They are then checked against stored practitioners and written in
+ * chunks of {@link #CHUNK_SIZE}, with one query per chunk for each check and one transaction per chunk.
+ * When a chunk fails, its entries are written again one at a time, each in a new transaction, so that
+ * only the failing entries are rejected.
+ */
+@Component
+public class PractitionerBatchImportService {
+
+    static final int CHUNK_SIZE = 100;
+
+    private static final String PRACTITIONER_EXISTS = "Practitioner already exists";
+
+    @Autowired
+    PractitionerTranslator practitionerTranslator;
+
+    @Autowired
+    ProviderChunkWriter providerChunkWriter;
+
+    @Autowired
+    ProviderDao providerDao;
+
+    /**
+     * @return a batch-response bundle with one entry per given entry, in the same order
+     */
+    public Bundle importPractitioners(Bundle practitioners) {
+        List<Bundle.BundleEntryComponent> responses = new ArrayList<>();
+        List<PendingEntry> chunk = new ArrayList<>();
+        Set<String> seenUuids = new HashSet<>();
+        Set<String> seenSdsUserIds = new HashSet<>();
+
+        for (Bundle.BundleEntryComponent entry : practitioners.getEntry()) {
+            Bundle.BundleEntryComponent response = new Bundle.BundleEntryComponent();
+            responses.add(response);
+
+            Resource resource = entry.getResource();
+            if (!(resource instanceof Practitioner)) {
+                reject(response, "Entry is not a Practitioner", INVALID_RESOURCE);
+                continue;
+            }
+
+            org.hl7.fhir.r4.model.Practitioner practitioner = Practitioner30_40.convertPractitioner((Practitioner) resource);
+            if (practitioner.getIdElement().getIdPart() == null) {
+                // the uuid is taken from the id, and a retry translates the same practitioner again
+                practitioner.setId(UUID.randomUUID().toString());
+            }
+
+            Provider provider;
+            try {
+                provider = practitionerTranslator.toOpenmrsType(practitioner);
+            } catch (RuntimeException e) {
+                reject(response, e.getMessage(), INVALID_RESOURCE);
+                continue;
+            }
+
+            if (provider.getUuid() != null && !seenUuids.add(provider.getUuid())) {
+                reject(response, PRACTITIONER_EXISTS, DUPLICATE_REJECTED);
+                continue;
+            }
+            if (provider.getIdentifier() != null && !seenSdsUserIds.add(provider.getIdentifier())) {
+                reject(response, sdsUserIdInUse(provider), DUPLICATE_REJECTED);
+                continue;
+            }
+
+            chunk.add(new PendingEntry(practitioner, provider, response));
+            if (chunk.size() == CHUNK_SIZE) {
+                write(chunk);
+                chunk.clear();
+            }
+        }
+        write(chunk);
+
+        Bundle batchResponse = new Bundle();
+        batchResponse.setType(Bundle.BundleType.BATCHRESPONSE);
+        batchResponse.setEntry(responses);
+        return batchResponse;
+    }
+
+    private void write(List<PendingEntry> chunk) {
+        List<PendingEntry> toWrite = rejectStoredDuplicates(chunk);
+        if (toWrite.isEmpty()) {
+            return;
+        }
+
+        try {
+            providerChunkWriter.saveAll(toWrite.stream().map(pending -> pending.provider).collect(Collectors.toList()));
+            toWrite.forEach(PendingEntry::accept);
+        } catch (RuntimeException chunkFailure) {
+            for (PendingEntry pending : toWrite) {
+                try {
+                    // the failed chunk left generated ids on the translated entities, so translate afresh
+                    pending.provider = practitionerTranslator.toOpenmrsType(pending.practitioner);
+                    providerChunkWriter.saveInNewTransaction(pending.provider);
+                    pending.accept();
+                } catch (RuntimeException e) {
+                    // a practitioner stored by another request since the chunk was checked is still a duplicate
+                    if (!rejectStoredDuplicates(Collections.singletonList(pending)).isEmpty()) {
+                        reject(pending.response, e.getMessage(), INVALID_RESOURCE);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Rejects the entries that duplicate stored practitioners, looking up all of their uuids in one
+     * query and all of their SDS user ids in another.
+     *
+     * @return the entries that were not rejected
+     */
+    private List<PendingEntry> rejectStoredDuplicates(List<PendingEntry> entries) {
+        if (entries.isEmpty()) {
+            return entries;
+        }
+
+        Set<String> storedUuids = providerDao.getStoredUuids(entries.stream()
+                .map(pending -> pending.provider.getUuid()).filter(Objects::nonNull).collect(Collectors.toList()));
+        Set<String> sdsUserIdsInUse = providerDao.getSdsUserIdsInUse(entries.stream()
+                .map(pending -> pending.provider.getIdentifier()).filter(Objects::nonNull).collect(Collectors.toList()));
+
+        List<PendingEntry> remaining = new ArrayList<>();
+        for (PendingEntry pending : entries) {
+            if (storedUuids.contains(pending.provider.getUuid())) {
+                reject(pending.response, PRACTITIONER_EXISTS, DUPLICATE_REJECTED);
+            } else if (sdsUserIdsInUse.contains(pending.provider.getIdentifier())) {
+                reject(pending.response, sdsUserIdInUse(pending.provider), DUPLICATE_REJECTED);
+            } else {
+                remaining.add(pending);
+            }
+        }
+        return remaining;
+    }
+
+    private static String sdsUserIdInUse(Provider provider) {
+        return String.format("A practitioner with SDS user id %s already exists", provider.getIdentifier());
+    }
+
+    private static void reject(Bundle.BundleEntryComponent response, String errorMessage, GPConnectCoding coding) {
+        response.setResponse(new Bundle.BundleEntryResponseComponent()
+                .setStatus(coding == DUPLICATE_REJECTED ? "409 Conflict" : "422 Unprocessable Entity")
+                .setOutcome(OperationOutcomeCreator.build(errorMessage, coding.getCode(), coding.getDisplay(),
+                        coding.getIssueType())));
+    }
+
+    private static class PendingEntry {
+
+        private final org.hl7.fhir.r4.model.Practitioner practitioner;
+
+        private final Bundle.BundleEntryComponent response;
+
+        private Provider provider;
+
+        private PendingEntry(org.hl7.fhir.r4.model.Practitioner practitioner, Provider provider,
+                Bundle.BundleEntryComponent response) {
+            this.practitioner = practitioner;
+            this.provider = provider;
+            this.response = response;
+        }
+
+        /**
+         * Cached practitioners are evicted by ProviderChangeAdvice when the provider service saves them.
+         */
+        private void accept() {
+            response.setResponse(new Bundle.BundleEntryResponseComponent()
+                    .setStatus("201 Created")
+                    .setLocation("Practitioner/" + provider.getUuid()));
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package org.openmrs.module.gpconnect.services;
+
+import static org.openmrs.module.gpconnect.translators.PractitionerTranslator.FHIR_NHS_SDS_USER_ID_SYSTEM;
+
+import org.hl7.fhir.dstu3.model.Identifier;
+import org.hl7.fhir.dstu3.model.Practitioner;
+import org.openmrs.module.gpconnect.util.LruCache;
+import org.openmrs.module.gpconnect.util.ResourceCache;
+import org.springframework.stereotype.Component;
+
+/**
+ * STU3 practitioners as served by the Practitioner read and search, looked up by uuid or by SDS user id.
+ * Practitioners are stored once, by uuid, with a second index from SDS user id to uuid. A hit through
+ * that index is only returned while the cached practitioner still carries the SDS user id, so evicting
+ * by uuid is enough to drop both keys.
+ */
+@Component
+public class PractitionerResourceCache {
+	
+	static final int CACHE_SIZE = 1000;
+	
+	private final ResourceCache<Practitioner> practitioners = new ResourceCache<>(CACHE_SIZE);
+	
+	private final LruCache<String, String> uuidsBySdsUserId = new LruCache<>(CACHE_SIZE);
+	
+	public Practitioner get(String uuid) {
+		return practitioners.get(uuid);
+	}
+	
+	public Practitioner getBySdsUserId(String sdsUserId) {
+		String uuid = uuidsBySdsUserId.get(sdsUserId);
+		if (uuid == null) {
+			return null;
+		}
+		
+		Practitioner practitioner = practitioners.get(uuid);
+		if (practitioner == null || !sdsUserId.equals(getSdsUserId(practitioner))) {
+			return null;
+		}
+		return practitioner;
+	}
+	
+	public void put(Practitioner practitioner) {
+		String uuid = practitioner.getIdElement().getIdPart();
+		if (uuid == null) {
+			return;
+		}
+		
+		practitioners.put(uuid, practitioner);
+		String sdsUserId = getSdsUserId(practitioner);
+		if (sdsUserId != null) {
+			uuidsBySdsUserId.put(sdsUserId, uuid);
+		}
+	}
+	
+	public void invalidate(String uuid) {
+		practitioners.invalidate(uuid);
+	}
+	
+	public void invalidateAll() {
+		practitioners.invalidateAll();
+		uuidsBySdsUserId.invalidateAll();
+	}
+	
+	private static String getSdsUserId(Practitioner practitioner) {
+		for (Identifier identifier : practitioner.getIdentifier()) {
+			if (FHIR_NHS_SDS_USER_ID_SYSTEM.equals(identifier.getSystem())) {
+				return identifier.getValue();
+			}
+		}
+		return null;
+	}
+}
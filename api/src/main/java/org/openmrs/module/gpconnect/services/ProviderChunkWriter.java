@@ -0,0 +1,68 @@
+package org.openmrs.module.gpconnect.services;
+
+import java.util.List;
+
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.openmrs.Provider;
+import org.openmrs.api.PersonService;
+import org.openmrs.api.ProviderService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Writes a chunk of providers through the OpenMRS services in a single transaction, so validation,
+ * auditing and module advice apply to every provider exactly as they do for a single save. The chunk
+ * is flushed once, which lets Hibernate send its statements in JDBC batches when
+ * {@code hibernate.jdbc.batch_size} is configured.
+ */
+@Component
+public class ProviderChunkWriter {
+
+    @Autowired
+    ProviderService providerService;
+
+    @Autowired
+    PersonService personService;
+
+    @Autowired
+    @Qualifier("sessionFactory")
+    SessionFactory sessionFactory;
+
+    /**
+     * Saves the providers and flushes them together, then clears the session so that the written
+     * chunks do not pile up in it for the rest of the import.
+     */
+    @Transactional
+    public void saveAll(List<Provider> providers) {
+        Session session = sessionFactory.getCurrentSession();
+        for (Provider provider : providers) {
+            save(provider);
+        }
+        session.flush();
+        session.clear();
+    }
+
+    /**
+     * Saves a single provider of a failed chunk in a transaction of its own. The session is cleared
+     * first, as it may be the request-bound session that still holds what the rolled back chunk left
+     * in it.
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void saveInNewTransaction(Provider provider) {
+        Session session = sessionFactory.getCurrentSession();
+        session.clear();
+        save(provider);
+        session.flush();
+    }
+
+    private void save(Provider provider) {
+        if (provider.getPerson() != null && provider.getPerson().getPersonId() == null) {
+            personService.savePerson(provider.getPerson());
+        }
+        providerService.saveProvider(provider);
+    }
+}
@@ -1,5 +1,8 @@
 package org.openmrs.module.gpconnect.services.impl;
 
+import java.util.List;
+import java.util.stream.Collectors;
+
 import org.hl7.fhir.r4.model.Organization;
 import org.openmrs.module.fhir2.api.dao.FhirDao;
 import org.openmrs.module.fhir2.api.impl.BaseFhirService;
@@ -7,6 +10,7 @@ import org.openmrs.module.fhir2.api.translators.OpenmrsFhirTranslator;
 import org.openmrs.module.gpconnect.dao.FhirOrganizationDao;
 import org.openmrs.module.gpconnect.models.OpenmrsOrganization;
 import org.openmrs.module.gpconnect.services.FhirOrganisationService;
+import org.openmrs.module.gpconnect.services.OrganizationResourceCache;
 import org.openmrs.module.gpconnect.translators.FhirOrganizationTranslator;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
@@ -22,12 +26,51 @@ public class FhirOrganisationServiceImpl extends BaseFhirService<Organization, O
 	@Autowired
 	FhirOrganizationTranslator fhirOrganizationTranslator;
 	
+	@Autowired
+	OrganizationResourceCache organizationResourceCache;
+	
 	@Override
 	public Organization get(String id) {
 		OpenmrsOrganization organization = fhirOrganisationDao.get(id);
 		return fhirOrganizationTranslator.toFhirResource(organization);
 	}
 	
+	@Override
+	public int countByOdsCode(String odsCode) {
+		return fhirOrganisationDao.countByOdsCode(odsCode);
+	}
+	
+	@Override
+	public List<Organization> searchByOdsCode(String odsCode, int fromIndex, int toIndex) {
+		return fhirOrganisationDao.getByOdsCode(odsCode, fromIndex, toIndex - fromIndex).stream()
+		        .map(fhirOrganizationTranslator::toFhirResource).collect(Collectors.toList());
+	}
+	
+	@Override
+	public Organization create(Organization newResource) {
+		Organization created = super.create(newResource);
+		organizationResourceCache.invalidate(created.getIdElement().getIdPart());
+		return created;
+	}
+	
+	/**
+	 * Invalidates once the change is written. The cache evicts the organization again when the
+	 * transaction completes, so a read that raced the commit cannot leave the old version cached.
+	 */
+	@Override
+	public Organization update(String uuid, Organization updatedResource) {
+		Organization updated = super.update(uuid, updatedResource);
+		organizationResourceCache.invalidate(uuid);
+		return updated;
+	}
+	
+	@Override
+	public Organization delete(String uuid) {
+		Organization deleted = super.delete(uuid);
+		organizationResourceCache.invalidate(uuid);
+		return deleted;
+	}
+	
 	@Override
 	protected FhirDao<OpenmrsOrganization> getDao() {
 		return fhirOrganisationDao;
@@ -5,19 +5,32 @@ import org.openmrs.module.fhir2.api.translators.OpenmrsFhirTranslator;
 import org.openmrs.module.gpconnect.models.OpenmrsOrganization;
 import org.springframework.stereotype.Component;
 
+import java.util.UUID;
+
 @Component
 public class FhirOrganizationTranslator implements OpenmrsFhirTranslator<OpenmrsOrganization, Organization> {
 	
+	public static final String ODS_ORGANIZATION_CODE_SYSTEM = "https://fhir.nhs.uk/Id/ods-organization-code";
+	
 	@Override
 	public Organization toFhirResource(OpenmrsOrganization openmrsOrganization) {
 		Organization organization = new Organization();
 		organization.setId(openmrsOrganization.getUuid());
 		organization.setName(openmrsOrganization.getName());
+		if (openmrsOrganization.getOdsCode() != null) {
+			organization.addIdentifier().setSystem(ODS_ORGANIZATION_CODE_SYSTEM).setValue(openmrsOrganization.getOdsCode());
+		}
 		return organization;
 	}
 	
 	@Override
 	public OpenmrsOrganization toOpenmrsType(Organization organization) {
-		return null;
+		OpenmrsOrganization openmrsOrganization = new OpenmrsOrganization();
+		openmrsOrganization.setUuid(
+		    organization.hasIdElement() ? organization.getIdElement().getIdPart() : UUID.randomUUID().toString());
+		openmrsOrganization.setName(organization.getName());
+		organization.getIdentifier().stream().filter(identifier -> ODS_ORGANIZATION_CODE_SYSTEM.equals(identifier.getSystem()))
+		        .findFirst().ifPresent(identifier -> openmrsOrganization.setOdsCode(identifier.getValue()));
+		return openmrsOrganization;
 	}
 }
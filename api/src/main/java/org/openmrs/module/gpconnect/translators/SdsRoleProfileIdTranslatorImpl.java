@@ -1,10 +1,12 @@
 package org.openmrs.module.gpconnect.translators;
 
+import org.hibernate.SessionFactory;
 import org.hl7.fhir.r4.model.Identifier;
 import org.openmrs.ProviderAttribute;
 import org.openmrs.ProviderAttributeType;
 import org.openmrs.api.ProviderService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.context.annotation.Primary;
 import org.springframework.stereotype.Component;
 
@@ -17,19 +19,49 @@ public class SdsRoleProfileIdTranslatorImpl implements SdsRoleProfileIdTranslato
     @Autowired
     ProviderService providerService;
 
+    @Autowired
+    @Qualifier("sessionFactory")
+    SessionFactory sessionFactory;
+
+    /**
+     * Only the id is kept, as the entity itself belongs to the session that loaded it.
+     */
+    private volatile Integer sdsRoleProfileIdTypeId;
+
     @Override
     public ProviderAttribute toOpenmrsType(Identifier identifier) {
-        ProviderAttributeType providerAttributeType = providerService.getProviderAttributeTypeByUuid(SDS_ROLE_PROFILE_ID_PROVIDER_ATTRIBUTE_TYPE_UUID);
         ProviderAttribute providerAttribute = new ProviderAttribute();
-        providerAttribute.setAttributeType(providerAttributeType);
+        providerAttribute.setAttributeType(getSdsRoleProfileIdType());
         providerAttribute.setValueReferenceInternal(identifier.getValue());
         return providerAttribute;
     }
 
+    /**
+     * Forgets the SDS role profile id attribute type so that it is looked up again on next use.
+     */
+    public void invalidate() {
+        sdsRoleProfileIdTypeId = null;
+    }
+
     @Override
     public Identifier toFhirResource(ProviderAttribute providerAttribute) {
         return new Identifier()
                 .setSystem(FHIR_NHS_SDS_ROLE_PROFILE_ID_SYSTEM)
                 .setValue(providerAttribute.getValueReference());
     }
+
+    private ProviderAttributeType getSdsRoleProfileIdType() {
+        Integer providerAttributeTypeId = sdsRoleProfileIdTypeId;
+        if (providerAttributeTypeId != null) {
+            return (ProviderAttributeType) sessionFactory.getCurrentSession()
+                    .load(ProviderAttributeType.class, providerAttributeTypeId);
+        }
+
+        ProviderAttributeType providerAttributeType = providerService
+                .getProviderAttributeTypeByUuid(SDS_ROLE_PROFILE_ID_PROVIDER_ATTRIBUTE_TYPE_UUID);
+        if (providerAttributeType != null) {
+            sdsRoleProfileIdTypeId = providerAttributeType.getId();
+        }
+        return providerAttributeType;
+    }
 }
@@ -0,0 +1,44 @@
+package org.openmrs.module.gpconnect.util;
+
+import org.hl7.fhir.dstu3.model.Meta;
+import org.hl7.fhir.dstu3.model.UriType;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The GP Connect profiles this module declares in resource meta. Each profile url is held once as a
+ * prototype {@link UriType}, and every {@link Meta} built from it gets its own copy.
+ */
+public enum GPConnectProfile {
+	
+	PATIENT("https://fhir.nhs.uk/STU3/StructureDefinition/CareConnect-GPC-Patient-1"),
+	
+	PRACTITIONER("https://fhir.nhs.uk/STU3/StructureDefinition/CareConnect-GPC-Practitioner-1"),
+	
+	LOCATION("https://fhir.nhs.uk/STU3/StructureDefinition/CareConnect-GPC-Location-1"),
+	
+	SEARCHSET_BUNDLE("https://fhir.nhs.uk/STU3/StructureDefinition/GPConnect-Searchset-Bundle-1"),
+	
+	OPERATION_OUTCOME("https://fhir.nhs.uk/STU3/StructureDefinition/GPConnect-OperationOutcome-1");
+	
+	private final UriType profile;
+	
+	GPConnectProfile(String url) {
+		this.profile = new UriType(url);
+	}
+	
+	public String getUrl() {
+		return profile.getValue();
+	}
+	
+	public Meta meta() {
+		List<UriType> profiles = new ArrayList<>(1);
+		profiles.add(profile.copy());
+		return new Meta().setProfile(profiles);
+	}
+	
+	public Meta meta(String versionId) {
+		return meta().setVersionId(versionId);
+	}
+}
@@ -0,0 +1,161 @@
+package org.openmrs.module.gpconnect.util;
+
+import ca.uhn.fhir.rest.api.server.RequestDetails;
+import ca.uhn.fhir.rest.param.TokenParam;
+
+/**
+ * An {@code identifier} search parameter split into its system and value in a single scan, together
+ * with the number of {@code |} separators and comma separated values it contains. The interceptor
+ * parses the raw request text once and keeps the token in the request's user data under
+ * {@link #USER_DATA_KEY}, where the provider handling the same request reads it back.
+ */
+public class IdentifierToken {
+
+	public static final String USER_DATA_KEY = IdentifierToken.class.getName();
+
+	private final String text;
+
+	private final String system;
+
+	private final String value;
+
+	private final int separatorCount;
+
+	private final int valueCount;
+
+	private IdentifierToken(String text, String system, String value, int separatorCount) {
+		this.text = text;
+		this.system = system;
+		this.value = value;
+		this.separatorCount = separatorCount;
+		this.valueCount = countValues(value);
+	}
+
+	/**
+	 * Parses the raw {@code system|value} text of the parameter. Without a separator the whole text is
+	 * the system and the value is null.
+	 */
+	public static IdentifierToken parse(String text) {
+		int firstSeparator = -1;
+		int separatorCount = 0;
+		for (int i = 0; i < text.length(); i++) {
+			if (text.charAt(i) == '|') {
+				if (firstSeparator < 0) {
+					firstSeparator = i;
+				}
+				separatorCount++;
+			}
+		}
+
+		if (firstSeparator < 0) {
+			return new IdentifierToken(text, text, null, 0);
+		}
+		return new IdentifierToken(text, text.substring(0, firstSeparator), text.substring(firstSeparator + 1),
+		        separatorCount);
+	}
+
+	/**
+	 * Builds the token from a parameter HAPI has already split at its first separator.
+	 */
+	public static IdentifierToken of(TokenParam tokenParam) {
+		String system = tokenParam.getSystem();
+		String value = tokenParam.getValue();
+		int separatorCount = (system == null ? 0 : 1) + count(value, '|');
+		return new IdentifierToken(String.format("%s|%s", system, value), system, value, separatorCount);
+	}
+
+	/**
+	 * @return the token an earlier stage stored on the request, or null when none was stored
+	 */
+	public static IdentifierToken from(RequestDetails requestDetails) {
+		Object stored = requestDetails.getUserData().get(USER_DATA_KEY);
+		return stored instanceof IdentifierToken ? (IdentifierToken) stored : null;
+	}
+
+	/**
+	 * Stores the token on the request for the later stages that handle it.
+	 */
+	public void storeOn(RequestDetails requestDetails) {
+		requestDetails.getUserData().put(USER_DATA_KEY, this);
+	}
+
+	public String getText() {
+		return text;
+	}
+
+	public String getSystem() {
+		return system;
+	}
+
+	public String getValue() {
+		return value;
+	}
+
+	public int getSeparatorCount() {
+		return separatorCount;
+	}
+
+	public boolean hasSystem() {
+		return system != null && !system.isEmpty();
+	}
+
+	public boolean hasValue() {
+		return value != null && !value.isEmpty();
+	}
+
+	public boolean isEmpty() {
+		return text.isEmpty();
+	}
+
+	/**
+	 * @return true when the value holds more than one comma separated value
+	 */
+	public boolean hasMultipleValues() {
+		return valueCount > 1;
+	}
+
+	/**
+	 * @return true when there is more than the one separator between system and value
+	 */
+	public boolean hasExtraSeparators() {
+		return separatorCount > 1;
+	}
+
+	@Override
+	public String toString() {
+		return text;
+	}
+
+	private static int countValues(String value) {
+		if (value == null) {
+			return 0;
+		}
+
+		int values = 0;
+		boolean inValue = false;
+		for (int i = 0; i < value.length(); i++) {
+			char c = value.charAt(i);
+			if (c == ',') {
+				inValue = false;
+			} else if (!inValue) {
+				inValue = true;
+				values++;
+			}
+		}
+		return values;
+	}
+
+	private static int count(String text, char c) {
+		if (text == null) {
+			return 0;
+		}
+
+		int count = 0;
+		for (int i = 0; i < text.length(); i++) {
+			if (text.charAt(i) == c) {
+				count++;
+			}
+		}
+		return count;
+	}
+}
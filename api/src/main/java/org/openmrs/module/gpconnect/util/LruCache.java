@@ -0,0 +1,81 @@
+package org.openmrs.module.gpconnect.util;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Small bounded cache that evicts the least recently used entry once it holds more than
+ * {@code maxSize} entries. All access is synchronized on the cache itself.
+ */
+public class LruCache<K, V> {
+
+	private final Map<K, V> entries;
+
+	private final AtomicLong hits = new AtomicLong();
+
+	private final AtomicLong misses = new AtomicLong();
+
+	public LruCache(final int maxSize) {
+		this.entries = new LinkedHashMap<K, V>(16, 0.75f, true) {
+
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
+				return size() > maxSize;
+			}
+		};
+	}
+
+	public synchronized V get(K key) {
+		V value = entries.get(key);
+		if (value == null) {
+			misses.incrementAndGet();
+		} else {
+			hits.incrementAndGet();
+		}
+		return value;
+	}
+
+	/**
+	 * Returns the cached values for the given keys. Keys that are not cached are left out of the
+	 * returned map and counted as misses.
+	 */
+	public synchronized Map<K, V> getAll(Collection<K> keys) {
+		Map<K, V> values = new HashMap<>();
+		for (K key : keys) {
+			V value = get(key);
+			if (value != null) {
+				values.put(key, value);
+			}
+		}
+		return values;
+	}
+
+	public synchronized void put(K key, V value) {
+		if (key != null && value != null) {
+			entries.put(key, value);
+		}
+	}
+
+	public synchronized void invalidate(K key) {
+		entries.remove(key);
+	}
+
+	public synchronized void invalidateAll() {
+		entries.clear();
+	}
+
+	public synchronized int size() {
+		return entries.size();
+	}
+
+	public long getHits() {
+		return hits.get();
+	}
+
+	public long getMisses() {
+		return misses.get();
+	}
+}
@@ -0,0 +1,69 @@
+package org.openmrs.module.gpconnect.util;
+
+import org.hl7.fhir.dstu3.model.Resource;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Bounded cache of converted STU3 resources. Resources are copied on the way in and on the way out,
+ * so callers are free to add meta or otherwise change what they get back.
+ */
+public class ResourceCache<T extends Resource> {
+	
+	private final LruCache<String, T> cache;
+	
+	public ResourceCache(int maxSize) {
+		this.cache = new LruCache<>(maxSize);
+	}
+	
+	@SuppressWarnings("unchecked")
+	public T get(String key) {
+		T resource = cache.get(key);
+		return resource == null ? null : (T) resource.copy();
+	}
+	
+	@SuppressWarnings("unchecked")
+	public void put(String key, T resource) {
+		if (resource != null) {
+			cache.put(key, (T) resource.copy());
+		}
+	}
+	
+	/**
+	 * Evicts the entry now and again once the surrounding transaction completes, so a concurrent read
+	 * of the uncommitted change cannot put a stale copy back into the cache.
+	 */
+	public void invalidate(String key) {
+		if (key == null) {
+			return;
+		}
+		
+		cache.invalidate(key);
+		afterCompletion(() -> cache.invalidate(key));
+	}
+	
+	public void invalidateAll() {
+		cache.invalidateAll();
+		afterCompletion(cache::invalidateAll);
+	}
+	
+	public long getHits() {
+		return cache.getHits();
+	}
+	
+	public long getMisses() {
+		return cache.getMisses();
+	}
+	
+	private void afterCompletion(Runnable eviction) {
+		if (TransactionSynchronizationManager.isSynchronizationActive()) {
+			TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+				
+				@Override
+				public void afterCompletion(int status) {
+					eviction.run();
+				}
+			});
+		}
+	}
+}
@@ -0,0 +1,83 @@
+package org.openmrs.module.gpconnect.dao;
+
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+
+import org.hibernate.Query;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+import org.openmrs.Provider;
+
+@RunWith(MockitoJUnitRunner.class)
+public class ProviderDaoTest {
+
+    @Mock
+    private SessionFactory sessionFactory;
+
+    @Mock
+    private Session session;
+
+    @Mock
+    private Query query;
+
+    @InjectMocks
+    private ProviderDao providerDao;
+
+    @Test
+    public void shouldLoadUnretiredProvidersWithTheirAttributesInOneQuery() {
+        List<Provider> providers = Collections.singletonList(new Provider());
+        when(sessionFactory.getCurrentSession()).thenReturn(session);
+        when(session.createQuery(anyString())).thenReturn(query);
+        when(query.setParameter("identifier", "G11111111")).thenReturn(query);
+        when(query.list()).thenReturn(providers);
+
+        assertThat(providerDao.getBySdsUserId("G11111111"), equalTo(providers));
+
+        ArgumentCaptor<String> hql = ArgumentCaptor.forClass(String.class);
+        verify(session).createQuery(hql.capture());
+        assertThat(hql.getValue(), containsString("select distinct p from Provider p"));
+        assertThat(hql.getValue(), containsString("left join fetch p.attributes"));
+        assertThat(hql.getValue(), containsString("p.identifier = :identifier"));
+        assertThat(hql.getValue(), containsString("p.retired = false"));
+        verify(query).setParameter("identifier", "G11111111");
+    }
+
+    @Test
+    public void shouldLookUpTheSdsUserIdsOfAChunkInOneQuery() {
+        List<String> sdsUserIds = Arrays.asList("G11111111", "G22222222");
+        when(sessionFactory.getCurrentSession()).thenReturn(session);
+        when(session.createQuery(anyString())).thenReturn(query);
+        when(query.setParameterList("identifiers", sdsUserIds)).thenReturn(query);
+        when(query.list()).thenReturn(Collections.singletonList("G22222222"));
+
+        assertThat(providerDao.getSdsUserIdsInUse(sdsUserIds), equalTo(new HashSet<>(Collections.singletonList("G22222222"))));
+
+        ArgumentCaptor<String> hql = ArgumentCaptor.forClass(String.class);
+        verify(session).createQuery(hql.capture());
+        assertThat(hql.getValue(), containsString("p.identifier in (:identifiers)"));
+        assertThat(hql.getValue(), containsString("p.retired = false"));
+    }
+
+    @Test
+    public void shouldNotQueryForAnEmptyChunk() {
+        assertThat(providerDao.getStoredUuids(Collections.<String>emptyList()).isEmpty(), equalTo(true));
+
+        verify(sessionFactory, never()).getCurrentSession();
+    }
+}
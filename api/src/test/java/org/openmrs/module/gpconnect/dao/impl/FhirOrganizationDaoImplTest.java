@@ -0,0 +1,94 @@
+package org.openmrs.module.gpconnect.dao.impl;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyInt;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.when;
+
+import java.util.Collections;
+import java.util.List;
+
+import org.hibernate.Criteria;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.criterion.Criterion;
+import org.hibernate.criterion.Order;
+import org.hibernate.criterion.Projection;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+import org.openmrs.module.gpconnect.models.OpenmrsOrganization;
+
+@RunWith(MockitoJUnitRunner.class)
+public class FhirOrganizationDaoImplTest {
+
+    @Mock
+    private SessionFactory sessionFactory;
+
+    @Mock
+    private Session session;
+
+    @Mock
+    private Criteria criteria;
+
+    private FhirOrganizationDaoImpl organizationDao;
+
+    @Before
+    public void setup() {
+        when(sessionFactory.getCurrentSession()).thenReturn(session);
+        when(session.createCriteria(OpenmrsOrganization.class)).thenReturn(criteria);
+        when(criteria.add(any(Criterion.class))).thenReturn(criteria);
+        when(criteria.addOrder(any(Order.class))).thenReturn(criteria);
+        when(criteria.setProjection(any(Projection.class))).thenReturn(criteria);
+        when(criteria.setFirstResult(anyInt())).thenReturn(criteria);
+        when(criteria.setMaxResults(anyInt())).thenReturn(criteria);
+
+        organizationDao = new FhirOrganizationDaoImpl();
+        organizationDao.setSessionFactory(sessionFactory);
+    }
+
+    @Test
+    public void shouldCountOrganizationsWithOdsCode() {
+        when(criteria.uniqueResult()).thenReturn(3L);
+
+        assertThat(organizationDao.countByOdsCode("A12345"), equalTo(3));
+
+        ArgumentCaptor<Criterion> restriction = ArgumentCaptor.forClass(Criterion.class);
+        InOrder order = inOrder(criteria);
+        order.verify(criteria).add(restriction.capture());
+        order.verify(criteria).setProjection(any(Projection.class));
+        assertThat(restriction.getValue().toString(), equalTo("odsCode=A12345"));
+    }
+
+    @Test
+    public void shouldReturnZeroWhenCountIsEmpty() {
+        when(criteria.uniqueResult()).thenReturn(null);
+
+        assertThat(organizationDao.countByOdsCode("A12345"), equalTo(0));
+    }
+
+    @Test
+    public void shouldReadOneStablyOrderedPageOfOrganizationsWithOdsCode() {
+        List<OpenmrsOrganization> page = Collections.singletonList(new OpenmrsOrganization());
+        when(criteria.list()).thenReturn(page);
+
+        assertThat(organizationDao.getByOdsCode("A12345", 20, 10), equalTo(page));
+
+        ArgumentCaptor<Criterion> restriction = ArgumentCaptor.forClass(Criterion.class);
+        ArgumentCaptor<Order> ordering = ArgumentCaptor.forClass(Order.class);
+        InOrder order = inOrder(criteria);
+        order.verify(criteria).add(restriction.capture());
+        order.verify(criteria).addOrder(ordering.capture());
+        order.verify(criteria).setFirstResult(20);
+        order.verify(criteria).setMaxResults(10);
+        order.verify(criteria).list();
+        assertThat(restriction.getValue().toString(), equalTo("odsCode=A12345"));
+        assertThat(ordering.getValue().toString(), equalTo("id asc"));
+    }
+}
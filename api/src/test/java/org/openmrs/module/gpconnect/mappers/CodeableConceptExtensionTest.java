@@ -20,11 +20,15 @@ public class CodeableConceptExtensionTest {
 	
 	CodeableConceptExtension codeableConceptExtension;
 	
+	UnknownCodeReporter unknownCodeReporter;
+	
 	@Before
 	public void setUp() {
 		HashMap<String, String> dictionary = new HashMap();
 		dictionary.put("key", "value");
-		codeableConceptExtension = new CodeableConceptExtension("extension-url", "code-system", dictionary);
+		unknownCodeReporter = new UnknownCodeReporter();
+		codeableConceptExtension = new CodeableConceptExtension("extension-url", "code-system", dictionary,
+		        unknownCodeReporter);
 	}
 	
 	@Test
@@ -44,6 +48,27 @@ public class CodeableConceptExtensionTest {
 		assertFalse(codeableConceptExtension.createExtension("something else").isPresent());
 	}
 	
+	@Test
+	public void shouldCountUnknownCodes() {
+		codeableConceptExtension.createExtension("something else");
+		codeableConceptExtension.createExtension("something else");
+		codeableConceptExtension.createExtension("key");
+		
+		assertEquals(Collections.singletonMap("extension-url", Collections.singletonMap("something else", 2L)),
+		    unknownCodeReporter.getCounts());
+		
+		unknownCodeReporter.shutdown();
+	}
+	
+	@Test
+	public void shouldNotShareCodingsBetweenExtensions() {
+		CodeableConcept first = (CodeableConcept) codeableConceptExtension.createExtension("key").get().getValue();
+		first.getCodingFirstRep().setDisplay("changed");
+		
+		CodeableConcept second = (CodeableConcept) codeableConceptExtension.createExtension("key").get().getValue();
+		assertEquals("value", second.getCodingFirstRep().getDisplay());
+	}
+	
 	@Test
 	public void shouldMapForPatient() {
 		Patient patient = new Patient();
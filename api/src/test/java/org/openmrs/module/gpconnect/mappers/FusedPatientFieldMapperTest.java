@@ -0,0 +1,153 @@
+package org.openmrs.module.gpconnect.mappers;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+
+import org.hl7.fhir.dstu3.model.CodeableConcept;
+import org.hl7.fhir.dstu3.model.Coding;
+import org.hl7.fhir.dstu3.model.Extension;
+import org.hl7.fhir.dstu3.model.Identifier;
+import org.hl7.fhir.dstu3.model.Patient;
+import org.junit.Test;
+import org.openmrs.module.gpconnect.entity.NhsPatient;
+import org.openmrs.module.gpconnect.mappers.valueSets.DeathNotificationStatus;
+import org.openmrs.module.gpconnect.mappers.valueSets.EthnicCategory;
+import org.openmrs.module.gpconnect.mappers.valueSets.NhsNoVerificationStatus;
+import org.openmrs.module.gpconnect.mappers.valueSets.RegistrationType;
+import org.openmrs.module.gpconnect.mappers.valueSets.ResidentialStatus;
+import org.openmrs.module.gpconnect.mappers.valueSets.TreatmentCategory;
+import org.openmrs.module.gpconnect.util.CodeSystems;
+import org.openmrs.module.gpconnect.util.Extensions;
+
+public class FusedPatientFieldMapperTest {
+	
+	CodeableConceptExtension nhsNo = new CodeableConceptExtension(Extensions.NHS_VERFICATION_STATUS_URL,
+	        CodeSystems.NHS_NO_VERIFICATION_STATUS, NhsNoVerificationStatus.dict());
+	
+	CodeableConceptExtension ethnicCategory = new CodeableConceptExtension(Extensions.ETHNIC_CATEGORY_URL,
+	        CodeSystems.ETHNIC_CATEGORY, EthnicCategory.dict());
+	
+	CodeableConceptExtension registrationType = new CodeableConceptExtension(Extensions.REGISTRATION_TYPE,
+	        CodeSystems.REGISTRATION_TYPE, RegistrationType.dict());
+	
+	CodeableConceptExtension treatmentCategory = new CodeableConceptExtension(Extensions.TREATMENT_CATEGORY_URL,
+	        CodeSystems.TREATMENT_CATEGORY, TreatmentCategory.dict());
+	
+	CodeableConceptExtension residentialStatus = new CodeableConceptExtension(Extensions.RESIDENTIAL_STATUS_URL,
+	        CodeSystems.RESIDENTIAL_STATUS, ResidentialStatus.dict());
+	
+	CodeableConceptExtension deathNotificationStatus = new CodeableConceptExtension(
+	        Extensions.DEATH_NOTIFICATION_STATUS_URL, CodeSystems.DEATH_NOTIFICATION_STATUS, DeathNotificationStatus.dict());
+	
+	FusedPatientFieldMapper fusedMapper = new FusedPatientFieldMapper(nhsNo, ethnicCategory, registrationType,
+	        treatmentCategory, residentialStatus, deathNotificationStatus);
+	
+	List<PatientFieldMapper> chain = Arrays.asList(new NhsNoMapper(nhsNo), new EthnicCategoryMapper(ethnicCategory),
+	    new RegistrationDetailsMapper(registrationType), new TreatmentCategoryMapper(treatmentCategory),
+	    new ResidentialStatusMapper(residentialStatus), new DeathNotificationStatusMapper(deathNotificationStatus));
+	
+	@Test
+	public void shouldEnhanceLikeTheMapperChainForAFullyPopulatedNhsPatient() {
+		assertSameEnhancement(fullNhsPatient());
+	}
+	
+	@Test
+	public void shouldEnhanceLikeTheMapperChainForAnEmptyNhsPatient() {
+		assertSameEnhancement(new NhsPatient());
+	}
+	
+	@Test
+	public void shouldEnhanceLikeTheMapperChainWhenCodesAreUnknown() {
+		NhsPatient nhsPatient = fullNhsPatient();
+		nhsPatient.setEthnicCategory("unknown");
+		nhsPatient.setRegistrationType("unknown");
+		nhsPatient.setRegistrationEnd(null);
+		
+		assertSameEnhancement(nhsPatient);
+	}
+	
+	@Test
+	public void shouldMapToNhsPatientLikeTheMapperChain() {
+		Patient patient = fusedMapper.enhance(patientWithNhsNumber(), fullNhsPatient());
+		
+		NhsPatient expected = chainMapToNhsPatient(patient);
+		
+		assertEquals(expected, fusedMapper.mapToNhsPatient(patient, new NhsPatient()));
+		assertEquals(fullNhsPatient(), expected);
+	}
+	
+	@Test
+	public void shouldOnlyReadTheFirstExtensionWithAGivenUrl() {
+		Patient patient = patientWithNhsNumber();
+		patient.addExtension(new Extension(Extensions.ETHNIC_CATEGORY_URL, new CodeableConcept().addCoding(new Coding(
+		        "wrong-system", "A", "British, Mixed British"))));
+		patient.addExtension(new Extension(Extensions.ETHNIC_CATEGORY_URL, new CodeableConcept().addCoding(new Coding(
+		        CodeSystems.ETHNIC_CATEGORY, "B", "Irish"))));
+		
+		NhsPatient nhsPatient = fusedMapper.mapToNhsPatient(patient, new NhsPatient());
+		
+		assertEquals(chainMapToNhsPatient(patient), nhsPatient);
+		assertEquals(null, nhsPatient.ethnicCategory);
+	}
+	
+	@Test
+	public void shouldMapPatientWithoutNhsFieldsLikeTheMapperChain() {
+		Patient patient = new Patient();
+		
+		assertEquals(chainMapToNhsPatient(patient), fusedMapper.mapToNhsPatient(patient, new NhsPatient()));
+	}
+	
+	private void assertSameEnhancement(NhsPatient nhsPatient) {
+		Patient expected = patientWithNhsNumber();
+		for (PatientFieldMapper mapper : chain) {
+			expected = mapper.enhance(expected, nhsPatient);
+		}
+		
+		Patient actual = fusedMapper.enhance(patientWithNhsNumber(), nhsPatient);
+		
+		assertTrue(expected.equalsDeep(actual));
+	}
+	
+	private NhsPatient chainMapToNhsPatient(Patient patient) {
+		NhsPatient nhsPatient = new NhsPatient();
+		for (PatientFieldMapper mapper : chain) {
+			nhsPatient = mapper.mapToNhsPatient(patient, nhsPatient);
+		}
+		return nhsPatient;
+	}
+	
+	@Test
+	public void shouldSkipIdentifiersWithoutASystem() {
+		Patient patient = new Patient();
+		patient.addIdentifier(new Identifier().setValue("no system"));
+		patient.addIdentifier(new Identifier().setSystem(Extensions.NHS_NUMBER_SYSTEM).setValue("9658218865"));
+		
+		assertEquals("9658218865", fusedMapper.mapToNhsPatient(patient, new NhsPatient()).getNhsNumber());
+	}
+	
+	private Patient patientWithNhsNumber() {
+		Patient patient = new Patient();
+		patient.addIdentifier(new Identifier().setSystem("https://fhir.nhs.uk/Id/local").setValue("local"));
+		patient.addIdentifier(new Identifier().setSystem(Extensions.NHS_NUMBER_SYSTEM).setValue("9658218865"));
+		return patient;
+	}
+	
+	private NhsPatient fullNhsPatient() {
+		NhsPatient nhsPatient = new NhsPatient();
+		nhsPatient.setNhsNumber("9658218865");
+		nhsPatient.setNhsNumberVerificationStatus("01");
+		nhsPatient.setEthnicCategory("A");
+		nhsPatient.setResidentialStatus("H");
+		nhsPatient.setTreatmentCategory("1");
+		nhsPatient.setRegistrationType("T");
+		nhsPatient.setRegistrationStart(new Date(1000000L));
+		nhsPatient.setRegistrationEnd(new Date(2000000L));
+		nhsPatient.setPreferredBranch("Location/1");
+		nhsPatient.setDeathNotificationStatus("2");
+		return nhsPatient;
+	}
+}
@@ -3,8 +3,16 @@ package org.openmrs.module.gpconnect.mappers;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNull;
 import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
 import org.hl7.fhir.dstu3.model.BooleanType;
 import org.hl7.fhir.dstu3.model.Identifier;
 import org.hl7.fhir.dstu3.model.Patient;
@@ -91,4 +99,34 @@ public class NhsPatientMapperTest {
 		
 		assertNull(actualPatient.getDeceased());
 	}
+	
+	@Test
+	public void shouldEnhanceAllPatientsFromOneLookupPerTable() {
+		Patient registeredPatient = new Patient();
+		registeredPatient.setId("registered");
+		registeredPatient.addIdentifier(new Identifier().setSystem(Extensions.NHS_NUMBER_SYSTEM).setValue("123"));
+		
+		Patient unregisteredPatient = new Patient();
+		unregisteredPatient.setId("unregistered");
+		
+		Map<String, Integer> patientIds = new HashMap<>();
+		patientIds.put("registered", 1);
+		patientIds.put("unregistered", 2);
+		when(mockNhsPatientService.getPatientIdsByUuids(any())).thenReturn(patientIds);
+		
+		NhsPatient nhsPatient = new NhsPatient();
+		nhsPatient.setId(1L);
+		nhsPatient.setEthnicCategory("A");
+		when(mockNhsPatientService.findAllByIds(any())).thenReturn(Collections.singletonMap(1L, nhsPatient));
+		
+		List<Patient> actualPatients = nhsPatientMapper.enhanceAll(Arrays.asList(registeredPatient, unregisteredPatient));
+		
+		assertEquals(1, actualPatients.get(0).getExtensionsByUrl(Extensions.ETHNIC_CATEGORY_URL).size());
+		assertEquals("registered-1", actualPatients.get(0).getMeta().getVersionId());
+		assertEquals(0, actualPatients.get(1).getExtensionsByUrl(Extensions.ETHNIC_CATEGORY_URL).size());
+		assertEquals("unregistered-1", actualPatients.get(1).getMeta().getVersionId());
+		
+		verify(mockPatientService, never()).getPatientByUuid(any());
+		verify(mockNhsPatientService, never()).findById(any());
+	}
 }
@@ -0,0 +1,39 @@
+package org.openmrs.module.gpconnect.mappers;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.util.Collections;
+
+import org.junit.After;
+import org.junit.Test;
+
+public class UnknownCodeReporterTest {
+	
+	UnknownCodeReporter unknownCodeReporter = new UnknownCodeReporter();
+	
+	@After
+	public void tearDown() {
+		unknownCodeReporter.shutdown();
+	}
+	
+	@Test
+	public void shouldReportCodesSeenSinceTheLastReportOnly() {
+		unknownCodeReporter.record("extension-url", "XX");
+		unknownCodeReporter.record("extension-url", "XX");
+		
+		assertEquals("Unknown value set codes seen since the last report: {extension-url={XX=2}}",
+		    unknownCodeReporter.report());
+		assertNull(unknownCodeReporter.report());
+	}
+	
+	@Test
+	public void shouldKeepTotalsAcrossReports() {
+		unknownCodeReporter.record("extension-url", "XX");
+		unknownCodeReporter.report();
+		unknownCodeReporter.record("extension-url", "XX");
+		
+		assertEquals(Collections.singletonMap("extension-url", Collections.singletonMap("XX", 2L)),
+		    unknownCodeReporter.getCounts());
+	}
+}
@@ -3,6 +3,8 @@ package org.openmrs.module.gpconnect.providers;
 
 import static org.hamcrest.CoreMatchers.equalTo;
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.openmrs.module.gpconnect.GPConnectTestHelper.assertThatGPConnectExceptionIsThrownWithCorrectOperationOutcome;
 
@@ -14,8 +16,10 @@ import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.runners.MockitoJUnitRunner;
 import org.openmrs.module.fhir2.api.FhirLocationService;
+import org.openmrs.module.gpconnect.services.LocationResourceCache;
 
 @RunWith(MockitoJUnitRunner.class)
 public class GPConnectLocationProviderTest {
@@ -25,6 +29,9 @@ public class GPConnectLocationProviderTest {
     @Mock
     private FhirLocationService locationService;
 
+    @Spy
+    private LocationResourceCache locationResourceCache = new LocationResourceCache();
+
     @InjectMocks
     private GPConnectLocationProvider locationProvider;
 
@@ -42,6 +49,26 @@ public class GPConnectLocationProviderTest {
         assertThat(actualLocation.getId(), equalTo(r3Location.getId()));
     }
 
+    @Test
+    public void shouldServeRepeatedReadsFromCacheUntilLocationIsSetUp() {
+        org.hl7.fhir.r4.model.Location r4Location = new org.hl7.fhir.r4.model.Location();
+        r4Location.setId(new IdType(VALID_LOCATION_UUID));
+        when(locationService.get(VALID_LOCATION_UUID)).thenReturn(r4Location);
+
+        locationProvider.getLocationById(new IdType(VALID_LOCATION_UUID));
+        Location cachedLocation = locationProvider.getLocationById(new IdType(VALID_LOCATION_UUID));
+
+        verify(locationService, times(1)).get(VALID_LOCATION_UUID);
+        assertThat(cachedLocation.getMeta().getVersionId(), equalTo("1"));
+
+        Location location = new Location();
+        location.setId(VALID_LOCATION_UUID);
+        locationProvider.updateLocation(location);
+        locationProvider.getLocationById(new IdType(VALID_LOCATION_UUID));
+
+        verify(locationService, times(2)).get(VALID_LOCATION_UUID);
+    }
+
     @Test
     public void shouldGetLocationNotFoundGivenInvalidId() {
         when(locationService.get(INVALID_LOCATION_UUID)).thenReturn(null);
@@ -3,19 +3,22 @@ package org.openmrs.module.gpconnect.providers;
 import static org.hamcrest.CoreMatchers.equalTo;
 import static org.junit.Assert.assertThat;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.openmrs.module.gpconnect.GPConnectTestHelper.assertThatGPConnectExceptionIsThrownWithCorrectOperationOutcome;
 import static org.openmrs.module.gpconnect.GPConnectTestHelper.generateIdentifier;
 
 import ca.uhn.fhir.rest.api.server.IBundleProvider;
 import ca.uhn.fhir.rest.param.TokenAndListParam;
+import ca.uhn.fhir.rest.param.TokenOrListParam;
 import ca.uhn.fhir.rest.param.TokenParam;
 import ca.uhn.fhir.rest.server.exceptions.InvalidRequestException;
 import ca.uhn.fhir.rest.server.exceptions.ResourceNotFoundException;
 import ca.uhn.fhir.rest.server.exceptions.UnprocessableEntityException;
 import java.util.Collections;
+import java.util.List;
 import org.hl7.fhir.dstu3.model.Bundle;
-import org.hl7.fhir.dstu3.model.DateTimeType;
 import org.hl7.fhir.dstu3.model.IdType;
 import org.hl7.fhir.dstu3.model.OperationOutcome.IssueType;
 import org.hl7.fhir.dstu3.model.Patient;
@@ -23,15 +26,16 @@ import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.ExpectedException;
 import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Matchers;
 import org.mockito.Mock;
 import org.mockito.runners.MockitoJUnitRunner;
-import org.openmrs.PatientIdentifierType;
 import org.openmrs.module.fhir2.api.FhirPatientService;
 import org.openmrs.module.gpconnect.mappers.NhsPatientMapper;
 import org.openmrs.module.gpconnect.mappers.valueSets.RegistrationType;
 import org.openmrs.module.gpconnect.services.GPConnectPatientService;
+import org.openmrs.module.gpconnect.services.PatientIdentifierTypeNameCache;
 
 @RunWith(MockitoJUnitRunner.class)
 public class GPConnectPatientProviderTest {
@@ -47,6 +51,9 @@ public class GPConnectPatientProviderTest {
     @Mock
     private GPConnectPatientService gpConnectPatientService;
 
+    @Mock
+    private PatientIdentifierTypeNameCache identifierTypeNameCache;
+
     @InjectMocks
     private GPConnectPatientProvider gpConnectPatientProvider;
 
@@ -128,8 +135,7 @@ public class GPConnectPatientProviderTest {
     public void searchShouldGetInvalidIdentifier() {
         TokenAndListParam identifier = generateIdentifier("Test", "Test");
 
-        org.hl7.fhir.r4.model.Identifier r4Identifier = new org.hl7.fhir.r4.model.Identifier();
-        when(fhirPatientService.getPatientIdentifierTypeByIdentifier(r4Identifier)).thenReturn(null);
+        when(identifierTypeNameCache.contains("Test")).thenReturn(false);
 
         assertThatGPConnectExceptionIsThrownWithCorrectOperationOutcome(() ->
                 gpConnectPatientProvider.searchPatients(null, null, null, identifier, null, null, null, null, null, null,
@@ -150,65 +156,95 @@ public class GPConnectPatientProviderTest {
 
         IBundleProvider provider = mock(IBundleProvider.class);
 
-        when(nhsPatientMapper.enhance(Matchers.any())).thenReturn(r3Patient);
+        when(nhsPatientMapper.enhanceAll(Matchers.any())).thenReturn(Collections.singletonList(r3Patient));
 
-        when(fhirPatientService.getPatientIdentifierTypeByIdentifier(Matchers.any()))
-                .thenReturn(new PatientIdentifierType());
+        when(identifierTypeNameCache.contains(Matchers.anyString())).thenReturn(true);
 
         when(fhirPatientService.searchForPatients(Matchers.any(), Matchers.any(), Matchers.any(), Matchers.any(),
                 Matchers.any(), Matchers.any(), Matchers.any(), Matchers.any(), Matchers.any(), Matchers.any(),
                 Matchers.any(), Matchers.any(), Matchers.any(), Matchers.any(), Matchers.any())).thenReturn(provider);
 
-        when(provider.getResources(0, 0)).thenReturn(Collections.singletonList(r4Patient));
+        when(provider.size()).thenReturn(1);
+        when(provider.getResources(0, 1)).thenReturn(Collections.singletonList(r4Patient));
 
         IBundleProvider resource = gpConnectPatientProvider.searchPatients(null, null, null, identifier, null, null,
                 null, null, null, null, null, null, null, null, null);
 
         assertThat(resource.size(), equalTo(1));
+        assertThat(resource.getResources(0, 1).size(), equalTo(1));
     }
 
     @Test
-    public void shouldNotReturnDeadPatientInSearch() {
+    public void shouldOnlySearchForPatientsThatAreNotDeceased() {
         TokenAndListParam identifier = generateIdentifier("Test", "Test");
 
-        org.hl7.fhir.r4.model.Patient r4Patient = new org.hl7.fhir.r4.model.Patient();
+        IBundleProvider provider = mock(IBundleProvider.class);
 
-        Patient r3Patient = new Patient();
-        r3Patient.setId(VALID_PATIENT_UUID);
-        r3Patient.setDeceased(new DateTimeType());
+        when(identifierTypeNameCache.contains(Matchers.anyString())).thenReturn(true);
 
-        IBundleProvider provider = mock(IBundleProvider.class);
+        ArgumentCaptor<TokenAndListParam> deceasedCaptor = ArgumentCaptor.forClass(TokenAndListParam.class);
+        when(fhirPatientService.searchForPatients(Matchers.any(), Matchers.any(), Matchers.any(), Matchers.any(),
+                Matchers.any(), Matchers.any(), Matchers.any(), deceasedCaptor.capture(), Matchers.any(), Matchers.any(),
+                Matchers.any(), Matchers.any(), Matchers.any(), Matchers.any(), Matchers.any())).thenReturn(provider);
 
-        when(nhsPatientMapper.enhance(Matchers.any())).thenReturn(r3Patient);
+        gpConnectPatientProvider.searchPatients(null, null, null, identifier, null, null,
+                null, null, null, null, null, null, null, null, null);
+
+        List<TokenOrListParam> deceased = deceasedCaptor.getValue().getValuesAsQueryTokens();
+        assertThat(deceased.size(), equalTo(1));
+        assertThat(deceased.get(0).getValuesAsQueryTokens().get(0).getValue(), equalTo("false"));
+    }
+
+    @Test
+    public void shouldRejectAnExplicitDeceasedParameter() {
+        TokenAndListParam identifier = generateIdentifier("Test", "Test");
+        TokenAndListParam deceased = new TokenAndListParam().addAnd(new TokenParam("true"));
+
+        assertThatGPConnectExceptionIsThrownWithCorrectOperationOutcome(() ->
+            gpConnectPatientProvider.searchPatients(null, null, null, identifier, null, null,
+                null, deceased, null, null, null, null, null, null, null),
+            InvalidRequestException.class, "BAD_REQUEST", "Bad request", IssueType.INVALID,
+            "Invalid parameter in request");
+
+        assertThat(deceased.getValuesAsQueryTokens().size(), equalTo(1));
+        verify(fhirPatientService, never()).searchForPatients(Matchers.any(), Matchers.any(), Matchers.any(), Matchers.any(),
+                Matchers.any(), Matchers.any(), Matchers.any(), Matchers.any(), Matchers.any(), Matchers.any(),
+                Matchers.any(), Matchers.any(), Matchers.any(), Matchers.any(), Matchers.any());
+    }
+
+    @Test
+    public void shouldOnlyEnhanceTheRequestedPageInSearch() {
+        TokenAndListParam identifier = generateIdentifier("Test", "Test");
+
+        IBundleProvider provider = mock(IBundleProvider.class);
 
-        when(fhirPatientService.getPatientIdentifierTypeByIdentifier(Matchers.any()))
-                .thenReturn(new PatientIdentifierType());
+        when(identifierTypeNameCache.contains(Matchers.anyString())).thenReturn(true);
 
         when(fhirPatientService.searchForPatients(Matchers.any(), Matchers.any(), Matchers.any(), Matchers.any(),
                 Matchers.any(), Matchers.any(), Matchers.any(), Matchers.any(), Matchers.any(), Matchers.any(),
                 Matchers.any(), Matchers.any(), Matchers.any(), Matchers.any(), Matchers.any())).thenReturn(provider);
 
-        when(provider.getResources(0, 0)).thenReturn(Collections.singletonList(r4Patient));
+        when(provider.size()).thenReturn(50);
 
         IBundleProvider resource = gpConnectPatientProvider.searchPatients(null, null, null, identifier, null, null,
                 null, null, null, null, null, null, null, null, null);
 
-        assertThat(resource.size(), equalTo(0));
+        assertThat(resource.size(), equalTo(50));
+        verify(provider, never()).getResources(Matchers.anyInt(), Matchers.anyInt());
+        verify(nhsPatientMapper, never()).enhanceAll(Matchers.any());
     }
 
     @Test
     public void shouldRegisterPatient() {
         Patient expectedPatient = new Patient();
         Patient patientToBeRegistered = new Patient();
-        org.openmrs.Patient savedOmrsPatient = new org.openmrs.Patient();
-        savedOmrsPatient.setUuid("abcd");
 
-        when(gpConnectPatientService.save(patientToBeRegistered, true)).thenReturn(savedOmrsPatient);
-        when(fhirPatientService.get(Matchers.any())).thenReturn(new org.hl7.fhir.r4.model.Patient());
-        when(nhsPatientMapper.enhance(Matchers.any())).thenReturn(expectedPatient);
+        when(gpConnectPatientService.register(patientToBeRegistered)).thenReturn(expectedPatient);
 
         Bundle result = gpConnectPatientProvider.registerPatient(patientToBeRegistered);
         Patient returnedPatient = (Patient) result.getEntry().get(0).getResource();
         assertThat(returnedPatient, equalTo(expectedPatient));
+        verify(fhirPatientService, never()).get(Matchers.any());
+        verify(nhsPatientMapper, never()).enhance(Matchers.any());
     }
 }
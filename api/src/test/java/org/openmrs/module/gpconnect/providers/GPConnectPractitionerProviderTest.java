@@ -5,11 +5,17 @@ import static org.hamcrest.CoreMatchers.equalTo;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.mockito.Matchers.any;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.openmrs.module.gpconnect.GPConnectTestHelper.assertThatGPConnectExceptionIsThrownWithCorrectOperationOutcome;
 import static org.openmrs.module.gpconnect.GPConnectTestHelper.generateIdentifier;
 
 import ca.uhn.fhir.rest.api.server.IBundleProvider;
+import ca.uhn.fhir.rest.api.server.RequestDetails;
+import ca.uhn.fhir.rest.param.StringAndListParam;
+import ca.uhn.fhir.rest.param.StringParam;
 import ca.uhn.fhir.rest.param.TokenAndListParam;
 import ca.uhn.fhir.rest.param.TokenParam;
 import ca.uhn.fhir.rest.server.exceptions.InvalidRequestException;
@@ -18,7 +24,9 @@ import ca.uhn.fhir.rest.server.exceptions.UnprocessableEntityException;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import org.hl7.fhir.dstu3.model.IdType;
 import org.hl7.fhir.dstu3.model.Identifier;
 import org.hl7.fhir.dstu3.model.OperationOutcome.IssueType;
@@ -27,8 +35,12 @@ import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.runners.MockitoJUnitRunner;
 import org.openmrs.module.fhir2.api.FhirPractitionerService;
+import org.openmrs.module.gpconnect.services.GPConnectPractitionerService;
+import org.openmrs.module.gpconnect.services.PractitionerResourceCache;
+import org.openmrs.module.gpconnect.util.IdentifierToken;
 
 @RunWith(MockitoJUnitRunner.class)
 public class GPConnectPractitionerProviderTest {
@@ -44,6 +56,12 @@ public class GPConnectPractitionerProviderTest {
     @Mock
     private FhirPractitionerService practitionerService;
 
+    @Mock
+    private GPConnectPractitionerService gpConnectPractitionerService;
+
+    @Spy
+    private PractitionerResourceCache practitionerResourceCache = new PractitionerResourceCache();
+
     @InjectMocks
     private GPConnectPractitionerProvider practitionerProvider;
 
@@ -88,9 +106,9 @@ public class GPConnectPractitionerProviderTest {
 
         IBundleProvider bundleProvider = mock(IBundleProvider.class);
 
-        when(practitionerService.searchForPractitioners(any(), any(), any(), any(), any(), any(), any(), any(), any(), any())).thenReturn(bundleProvider);
+        when(gpConnectPractitionerService.searchBySdsUserId(any())).thenReturn(bundleProvider);
 
-        IBundleProvider resources = practitionerProvider.searchForPractitioners(null, identifier, null, null, null, null, null, null, null, null);
+        IBundleProvider resources = practitionerProvider.searchForPractitioners(null, identifier, null, null, null, null, null, null, null, null, null);
 
         assertThat(resources.size(), equalTo(0));
     }
@@ -100,20 +118,76 @@ public class GPConnectPractitionerProviderTest {
         TokenAndListParam identifier = generateIdentifier(VALID_SDS_USER_ID_IDENTIFIER_SYSTEM, VALID_PRACTITIONER_SDS_USER_ID);
 
         org.hl7.fhir.r4.model.Practitioner r4Practitioner = new org.hl7.fhir.r4.model.Practitioner();
+        r4Practitioner.setId("abc");
 
         IBundleProvider bundleProvider = mock(IBundleProvider.class);
 
-        when(bundleProvider.getResources(0, 0))
+        when(bundleProvider.size()).thenReturn(1);
+        when(bundleProvider.getResources(0, 1))
             .thenReturn(Collections.singletonList(r4Practitioner));
-        when(practitionerService
-            .searchForPractitioners(any(), any(), any(), any(), any(), any(), any(), any(), any(),
-                any())).thenReturn(bundleProvider);
+        when(gpConnectPractitionerService.searchBySdsUserId(any())).thenReturn(bundleProvider);
 
         IBundleProvider resources = practitionerProvider
             .searchForPractitioners(null, identifier, null, null, null, null, null, null, null,
-                null);
+                null, null);
 
         assertThat(resources.size(), equalTo(1));
+        Practitioner practitioner = (Practitioner) resources.getResources(0, 1).get(0);
+        assertThat(practitioner.getMeta().getVersionId(), equalTo("abc-1"));
+    }
+
+    @Test
+    public void shouldServeRepeatedSearchesBySdsUserIdFromCacheUntilPractitionerIsSetUp() {
+        TokenAndListParam identifier = generateIdentifier(VALID_SDS_USER_ID_IDENTIFIER_SYSTEM, VALID_PRACTITIONER_SDS_USER_ID);
+
+        org.hl7.fhir.r4.model.Practitioner r4Practitioner = new org.hl7.fhir.r4.model.Practitioner();
+        r4Practitioner.setId(VALID_PRACTITIONER_UUID);
+        r4Practitioner.addIdentifier().setSystem(VALID_SDS_USER_ID_IDENTIFIER_SYSTEM).setValue(VALID_PRACTITIONER_SDS_USER_ID);
+
+        IBundleProvider bundleProvider = mock(IBundleProvider.class);
+        when(bundleProvider.size()).thenReturn(1);
+        when(bundleProvider.getResources(0, 1)).thenReturn(Collections.singletonList(r4Practitioner));
+        when(gpConnectPractitionerService.searchBySdsUserId(any())).thenReturn(bundleProvider);
+
+        practitionerProvider.searchForPractitioners(null, identifier, null, null, null, null, null, null, null, null, null)
+            .getResources(0, 1);
+        IBundleProvider cached = practitionerProvider.searchForPractitioners(null, identifier, null, null, null, null,
+            null, null, null, null, null);
+
+        verify(gpConnectPractitionerService, times(1)).searchBySdsUserId(any());
+        Practitioner practitioner = (Practitioner) cached.getResources(0, 1).get(0);
+        assertThat(practitioner.getIdElement().getIdPart(), equalTo(VALID_PRACTITIONER_UUID));
+
+        Practitioner setUp = new Practitioner();
+        setUp.setId(VALID_PRACTITIONER_UUID);
+        practitionerProvider.setupPractitioner(setUp);
+        practitionerProvider.searchForPractitioners(null, identifier, null, null, null, null, null, null, null, null, null);
+
+        verify(gpConnectPractitionerService, times(2)).searchBySdsUserId(any());
+    }
+
+    @Test
+    public void shouldRejectSearchParametersOtherThanTheIdentifier() {
+        TokenAndListParam identifier = generateIdentifier(VALID_SDS_USER_ID_IDENTIFIER_SYSTEM, VALID_PRACTITIONER_SDS_USER_ID);
+
+        Practitioner cachedPractitioner = new Practitioner();
+        cachedPractitioner.setId(VALID_PRACTITIONER_UUID);
+        cachedPractitioner.addIdentifier().setSystem(VALID_SDS_USER_ID_IDENTIFIER_SYSTEM).setValue(VALID_PRACTITIONER_SDS_USER_ID);
+        practitionerResourceCache.put(cachedPractitioner);
+
+        assertThatGPConnectExceptionIsThrownWithCorrectOperationOutcome(() ->
+            practitionerProvider.searchForPractitioners(new StringAndListParam().addAnd(new StringParam("Nobody")),
+                identifier, null, null, null, null, null, null, null, null, null),
+            InvalidRequestException.class, "BAD_REQUEST", "Bad request", IssueType.INVALID,
+            "Invalid parameter in request"
+        );
+        assertThatGPConnectExceptionIsThrownWithCorrectOperationOutcome(() ->
+            practitionerProvider.searchForPractitioners(null, identifier, null,
+                new StringAndListParam().addAnd(new StringParam("Nobody")), null, null, null, null, null, null, null),
+            InvalidRequestException.class, "BAD_REQUEST", "Bad request", IssueType.INVALID,
+            "Invalid parameter in request"
+        );
+        verify(gpConnectPractitionerService, never()).searchBySdsUserId(any());
     }
 
     @Test
@@ -121,7 +195,7 @@ public class GPConnectPractitionerProviderTest {
         TokenAndListParam identifier = generateIdentifier(VALID_SDS_USER_ID_IDENTIFIER_SYSTEM, VALID_PRACTITIONER_SDS_USER_ID).addAnd(new TokenParam());
 
         assertThatGPConnectExceptionIsThrownWithCorrectOperationOutcome(() ->
-            practitionerProvider.searchForPractitioners(null, identifier, null, null, null, null, null, null, null, null),
+            practitionerProvider.searchForPractitioners(null, identifier, null, null, null, null, null, null, null, null, null),
             InvalidRequestException.class, "BAD_REQUEST", "Bad request", IssueType.INVALID,
             "Exactly 1 identifier needs to be provided"
         );
@@ -132,11 +206,29 @@ public class GPConnectPractitionerProviderTest {
         TokenAndListParam identifier = generateIdentifier(VALID_SDS_USER_ID_IDENTIFIER_SYSTEM, VALID_PRACTITIONER_SDS_USER_ID + "," + ANOTHER_VALID_PRACTITIONER_SDS_USER_ID);
 
         assertThatGPConnectExceptionIsThrownWithCorrectOperationOutcome(() ->
-                practitionerProvider.searchForPractitioners(null, identifier, null, null, null, null, null, null, null, null),
+                practitionerProvider.searchForPractitioners(null, identifier, null, null, null, null, null, null, null, null, null),
+            InvalidRequestException.class, "INVALID_IDENTIFIER_VALUE", "Invalid identifier value", IssueType.VALUE,
+            "Multiple values detected for non-repeatable parameter 'identifier'."
+                + "This server is not configured to allow multiple (AND/OR) values for this param."
+        );
+    }
+
+    @Test
+    public void shouldValidateTheIdentifierTokenStoredOnTheRequest() {
+        TokenAndListParam identifier = generateIdentifier(VALID_SDS_USER_ID_IDENTIFIER_SYSTEM, VALID_PRACTITIONER_SDS_USER_ID);
+        Map<Object, Object> userData = new HashMap<>();
+        RequestDetails requestDetails = mock(RequestDetails.class);
+        when(requestDetails.getUserData()).thenReturn(userData);
+        IdentifierToken.parse(VALID_SDS_USER_ID_IDENTIFIER_SYSTEM + "|" + VALID_PRACTITIONER_SDS_USER_ID + ","
+            + ANOTHER_VALID_PRACTITIONER_SDS_USER_ID).storeOn(requestDetails);
+
+        assertThatGPConnectExceptionIsThrownWithCorrectOperationOutcome(() ->
+                practitionerProvider.searchForPractitioners(null, identifier, null, null, null, null, null, null, null, null, requestDetails),
             InvalidRequestException.class, "INVALID_IDENTIFIER_VALUE", "Invalid identifier value", IssueType.VALUE,
             "Multiple values detected for non-repeatable parameter 'identifier'."
                 + "This server is not configured to allow multiple (AND/OR) values for this param."
         );
+        verify(gpConnectPractitionerService, never()).searchBySdsUserId(any());
     }
 
     @Test
@@ -144,7 +236,7 @@ public class GPConnectPractitionerProviderTest {
         TokenAndListParam identifier = generateIdentifier(VALID_SDS_USER_ID_IDENTIFIER_SYSTEM, VALID_PRACTITIONER_SDS_USER_ID + "|" + ANOTHER_VALID_PRACTITIONER_SDS_USER_ID);
 
         assertThatGPConnectExceptionIsThrownWithCorrectOperationOutcome(() ->
-                practitionerProvider.searchForPractitioners(null, identifier, null, null, null, null, null, null, null, null),
+                practitionerProvider.searchForPractitioners(null, identifier, null, null, null, null, null, null, null, null, null),
             UnprocessableEntityException.class, "INVALID_IDENTIFIER_VALUE", "Invalid identifier value", IssueType.VALUE,
             "One or both of the identifier system and value are missing from given identifier : "
                 + VALID_SDS_USER_ID_IDENTIFIER_SYSTEM + "|" + VALID_PRACTITIONER_SDS_USER_ID + "|" + ANOTHER_VALID_PRACTITIONER_SDS_USER_ID
@@ -156,7 +248,7 @@ public class GPConnectPractitionerProviderTest {
         TokenAndListParam identifier = generateIdentifier(null, null);
 
         assertThatGPConnectExceptionIsThrownWithCorrectOperationOutcome(() ->
-                practitionerProvider.searchForPractitioners(null, identifier, null, null, null, null, null, null, null, null),
+                practitionerProvider.searchForPractitioners(null, identifier, null, null, null, null, null, null, null, null, null),
             UnprocessableEntityException.class, "INVALID_PARAMETER", "Submitted parameter is not valid.", IssueType.INVALID,
             "One or both of the identifier system and value are missing from given identifier : null|null"
         );
@@ -167,7 +259,7 @@ public class GPConnectPractitionerProviderTest {
         TokenAndListParam identifier = generateIdentifier("", "");
 
         assertThatGPConnectExceptionIsThrownWithCorrectOperationOutcome(() ->
-                practitionerProvider.searchForPractitioners(null, identifier, null, null, null, null, null, null, null, null),
+                practitionerProvider.searchForPractitioners(null, identifier, null, null, null, null, null, null, null, null, null),
             UnprocessableEntityException.class, "INVALID_PARAMETER", "Submitted parameter is not valid.", IssueType.INVALID,
             "One or both of the identifier system and value are missing from given identifier : |"
         );
@@ -178,7 +270,7 @@ public class GPConnectPractitionerProviderTest {
         TokenAndListParam identifier = generateIdentifier(null, VALID_PRACTITIONER_SDS_USER_ID);
 
         assertThatGPConnectExceptionIsThrownWithCorrectOperationOutcome(() ->
-                practitionerProvider.searchForPractitioners(null, identifier, null, null, null, null, null, null, null, null),
+                practitionerProvider.searchForPractitioners(null, identifier, null, null, null, null, null, null, null, null, null),
             UnprocessableEntityException.class, "INVALID_PARAMETER", "Submitted parameter is not valid.", IssueType.INVALID,
             "One or both of the identifier system and value are missing from given identifier : null|" + VALID_PRACTITIONER_SDS_USER_ID
         );
@@ -189,7 +281,7 @@ public class GPConnectPractitionerProviderTest {
         TokenAndListParam identifier = generateIdentifier("", null);
 
         assertThatGPConnectExceptionIsThrownWithCorrectOperationOutcome(() ->
-                practitionerProvider.searchForPractitioners(null, identifier, null, null, null, null, null, null, null, null),
+                practitionerProvider.searchForPractitioners(null, identifier, null, null, null, null, null, null, null, null, null),
             UnprocessableEntityException.class, "INVALID_PARAMETER", "Submitted parameter is not valid.", IssueType.INVALID,
             "One or both of the identifier system and value are missing from given identifier : |null"
         );
@@ -200,7 +292,7 @@ public class GPConnectPractitionerProviderTest {
         TokenAndListParam identifier = generateIdentifier(VALID_SDS_USER_ID_IDENTIFIER_SYSTEM, null);
 
         assertThatGPConnectExceptionIsThrownWithCorrectOperationOutcome(() ->
-                practitionerProvider.searchForPractitioners(null, identifier, null, null, null, null, null, null, null, null),
+                practitionerProvider.searchForPractitioners(null, identifier, null, null, null, null, null, null, null, null, null),
             UnprocessableEntityException.class, "INVALID_PARAMETER", "Submitted parameter is not valid.", IssueType.INVALID,
             "One or both of the identifier system and value are missing from given identifier : https://fhir.nhs.uk/Id/sds-user-id|null"
         );
@@ -211,7 +303,7 @@ public class GPConnectPractitionerProviderTest {
         TokenAndListParam identifier = generateIdentifier(VALID_SDS_USER_ID_IDENTIFIER_SYSTEM, "");
 
         assertThatGPConnectExceptionIsThrownWithCorrectOperationOutcome(() ->
-                practitionerProvider.searchForPractitioners(null, identifier, null, null, null, null, null, null, null, null),
+                practitionerProvider.searchForPractitioners(null, identifier, null, null, null, null, null, null, null, null, null),
             UnprocessableEntityException.class, "INVALID_PARAMETER", "Submitted parameter is not valid.", IssueType.INVALID,
             "One or both of the identifier system and value are missing from given identifier : https://fhir.nhs.uk/Id/sds-user-id|"
         );
@@ -222,7 +314,7 @@ public class GPConnectPractitionerProviderTest {
         TokenAndListParam identifier = generateIdentifier("Test", "Test");
 
         assertThatGPConnectExceptionIsThrownWithCorrectOperationOutcome(() ->
-                practitionerProvider.searchForPractitioners(null, identifier, null, null, null, null, null, null, null, null),
+                practitionerProvider.searchForPractitioners(null, identifier, null, null, null, null, null, null, null, null, null),
             InvalidRequestException.class, "INVALID_IDENTIFIER_SYSTEM", "Invalid identifier system", IssueType.VALUE,
             "The given identifier system code (Test) is not an expected code"
         );
@@ -0,0 +1,66 @@
+package org.openmrs.module.gpconnect.providers;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.openmrs.module.gpconnect.GPConnectTestHelper.assertThatGPConnectExceptionIsThrownWithCorrectOperationOutcome;
+import static org.openmrs.module.gpconnect.GPConnectTestHelper.generateIdentifier;
+
+import ca.uhn.fhir.rest.api.server.IBundleProvider;
+import ca.uhn.fhir.rest.server.exceptions.InvalidRequestException;
+import java.util.Collections;
+import java.util.List;
+import org.hl7.fhir.dstu3.model.Organization;
+import org.hl7.fhir.dstu3.model.OperationOutcome.IssueType;
+import org.hl7.fhir.instance.model.api.IBaseResource;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.InjectMocks;
+import org.mockito.Matchers;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+import org.openmrs.module.gpconnect.services.FhirOrganisationService;
+import org.openmrs.module.gpconnect.services.OrganizationResourceCache;
+
+@RunWith(MockitoJUnitRunner.class)
+public class OrganizationFhirResourceProviderTest {
+    private static final String ODS_ORGANIZATION_CODE_SYSTEM = "https://fhir.nhs.uk/Id/ods-organization-code";
+    private static final String ODS_CODE = "A11111";
+
+    @Mock
+    private FhirOrganisationService fhirOrganisationService;
+
+    @Mock
+    private OrganizationResourceCache organizationResourceCache;
+
+    @InjectMocks
+    private OrganizationFhirResourceProvider organizationProvider;
+
+    @Test
+    public void shouldOnlyLoadTheRequestedPageWhenSearchingByOdsCode() {
+        org.hl7.fhir.r4.model.Organization r4Organization = new org.hl7.fhir.r4.model.Organization();
+        r4Organization.setId("abc");
+        when(fhirOrganisationService.countByOdsCode(ODS_CODE)).thenReturn(1);
+        when(fhirOrganisationService.searchByOdsCode(ODS_CODE, 0, 1)).thenReturn(Collections.singletonList(r4Organization));
+
+        IBundleProvider provider = organizationProvider.searchOrganizations(generateIdentifier(ODS_ORGANIZATION_CODE_SYSTEM, ODS_CODE));
+
+        verify(fhirOrganisationService, never()).searchByOdsCode(Matchers.any(), Matchers.anyInt(), Matchers.anyInt());
+        assertThat(provider.size(), equalTo(1));
+
+        List<IBaseResource> organizations = provider.getResources(0, 1);
+        assertThat(organizations.size(), equalTo(1));
+        assertThat(((Organization) organizations.get(0)).getIdElement().getIdPart(), equalTo("abc"));
+    }
+
+    @Test
+    public void shouldRejectSearchesByOtherIdentifierSystems() {
+        assertThatGPConnectExceptionIsThrownWithCorrectOperationOutcome(() ->
+                organizationProvider.searchOrganizations(generateIdentifier("https://fhir.nhs.uk/Id/sds-user-id", ODS_CODE)),
+            InvalidRequestException.class, "INVALID_IDENTIFIER_SYSTEM", "Invalid identifier system", IssueType.VALUE,
+            "The given identifier system code (https://fhir.nhs.uk/Id/sds-user-id) is not an expected code"
+        );
+    }
+}
@@ -5,8 +5,6 @@ import static org.junit.Assert.*;
 import static org.mockito.Mockito.*;
 import static org.openmrs.module.gpconnect.GPConnectTestHelper.assertThatGPConnectExceptionIsThrownWithCorrectOperationOutcome;
 
-import ca.uhn.fhir.rest.param.TokenAndListParam;
-import ca.uhn.fhir.rest.param.TokenParam;
 import ca.uhn.fhir.rest.server.exceptions.InvalidRequestException;
 import ca.uhn.fhir.rest.server.exceptions.ResourceVersionConflictException;
 import ca.uhn.fhir.rest.server.exceptions.UnprocessableEntityException;
@@ -14,6 +12,7 @@ import java.util.Collections;
 import java.util.Date;
 
 import org.apache.commons.lang3.time.DateUtils;
+import org.hibernate.exception.ConstraintViolationException;
 import org.hl7.fhir.dstu3.model.*;
 import org.hl7.fhir.dstu3.model.OperationOutcome.IssueType;
 import org.hl7.fhir.dstu3.model.Patient.AnimalComponent;
@@ -24,11 +23,9 @@ import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Matchers;
 import org.mockito.Mock;
-import org.mockito.Mockito;
 import org.mockito.runners.MockitoJUnitRunner;
-import org.openmrs.module.fhir2.api.FhirPatientService;
 import org.openmrs.module.fhir2.api.dao.FhirPatientDao;
-import org.openmrs.module.fhir2.api.search.param.SearchParameterMap;
+import org.openmrs.module.fhir2.api.translators.PatientTranslator;
 import org.openmrs.module.gpconnect.entity.NhsPatient;
 import org.openmrs.module.gpconnect.mappers.NhsPatientMapper;
 import org.openmrs.module.gpconnect.util.Extensions;
@@ -45,7 +42,7 @@ public class GPConnectPatientServiceTest {
     private NhsPatientMapper nhsPatientMapper;
 
     @Mock
-    private FhirPatientService fhirPatientService;
+    private PatientTranslator patientTranslator;
 
     @Mock
     private NhsPatientService nhsPatientService;
@@ -59,29 +56,24 @@ public class GPConnectPatientServiceTest {
 
         Patient patient = getValidGPConnectPatient(VALID_NHS_NUMBER);
 
+        org.openmrs.Patient translatedPatient = new org.openmrs.Patient();
         org.openmrs.Patient createdPatient = new org.openmrs.Patient();
         createdPatient.setPatientId(patientId);
 
-        when(fhirPatientDao.getSearchResults(Matchers.any(), Matchers.any())).thenReturn(Collections.emptyList())
-                .thenReturn(Collections.singletonList(createdPatient));
+        when(patientTranslator.toOpenmrsType(Matchers.any(org.hl7.fhir.r4.model.Patient.class))).thenReturn(translatedPatient);
+        when(fhirPatientDao.createOrUpdate(translatedPatient)).thenReturn(createdPatient);
 
         NhsPatient expectedNhsPatient = new NhsPatient();
         when(nhsPatientMapper.toNhsPatient(patient, patientId)).thenReturn(expectedNhsPatient);
 
         org.openmrs.Patient savedPatient = gpConnectPatientService.save(patient,true);
 
-        verify(fhirPatientService).create(Matchers.any());
-
-        ArgumentCaptor<SearchParameterMap> searchParameterMapArgumentCaptor = ArgumentCaptor
-                .forClass(SearchParameterMap.class);
-        verify(fhirPatientDao, Mockito.times(2)).getSearchResults(searchParameterMapArgumentCaptor.capture(), Matchers.any());
-        SearchParameterMap value = searchParameterMapArgumentCaptor.getValue();
-        TokenAndListParam tokenAndListParam = (TokenAndListParam) value.getParameters("identifier.search.handler")
-                .get(0).getParam();
-        assertNhsNumber(tokenAndListParam, VALID_NHS_NUMBER);
+        verify(fhirPatientDao).createOrUpdate(translatedPatient);
+        verify(fhirPatientDao, never()).getSearchResults(Matchers.any(), Matchers.any());
+        verify(nhsPatientService).findPatientIdByNhsNumber(VALID_NHS_NUMBER);
 
         verify(nhsPatientMapper).toNhsPatient(patient, patientId);
-        verify(nhsPatientService).saveOrUpdate(expectedNhsPatient);
+        verify(nhsPatientService).create(expectedNhsPatient);
 
         assertThat(savedPatient, equalTo(createdPatient));
     }
@@ -94,8 +86,7 @@ public class GPConnectPatientServiceTest {
         org.openmrs.Patient createdPatient = new org.openmrs.Patient();
         createdPatient.setPatientId(patientId);
 
-        when(fhirPatientDao.getSearchResults(Matchers.any(), Matchers.any())).thenReturn(Collections.emptyList())
-                .thenReturn(Collections.singletonList(createdPatient));
+        when(fhirPatientDao.createOrUpdate(Matchers.any())).thenReturn(createdPatient);
 
         NhsPatient expectedNhsPatient = new NhsPatient();
         expectedNhsPatient.setRegistrationType("T");
@@ -106,7 +97,7 @@ public class GPConnectPatientServiceTest {
         gpConnectPatientService.save(patient,true);
 
         ArgumentCaptor<NhsPatient> nhsPatientArgumentCaptor = ArgumentCaptor.forClass(NhsPatient.class);
-        verify(nhsPatientService, times(1)).saveOrUpdate(nhsPatientArgumentCaptor.capture());
+        verify(nhsPatientService, times(1)).create(nhsPatientArgumentCaptor.capture());
 
         NhsPatient returnedNhsPatient = nhsPatientArgumentCaptor.getValue();
         assertThat(returnedNhsPatient.registrationType, equalTo(expectedNhsPatient.registrationType));
@@ -115,23 +106,102 @@ public class GPConnectPatientServiceTest {
         assertThat(returnedNhsPatient.registrationEnd, equalTo(DateUtils.addMonths(returnedNhsPatient.registrationStart, 3)));
     }
 
+    @Test
+    public void shouldBuildRegisteredPatientFromCreatedEntities() {
+        int patientId = 987;
+
+        Patient patient = getValidGPConnectPatient(VALID_NHS_NUMBER);
+        org.openmrs.Patient createdPatient = new org.openmrs.Patient();
+        createdPatient.setPatientId(patientId);
+
+        org.hl7.fhir.r4.model.Patient createdR4Patient = new org.hl7.fhir.r4.model.Patient();
+        createdR4Patient.setId(createdPatient.getUuid());
+
+        NhsPatient nhsPatient = new NhsPatient();
+        Patient expectedPatient = new Patient();
+
+        when(fhirPatientDao.createOrUpdate(Matchers.any())).thenReturn(createdPatient);
+        when(patientTranslator.toFhirResource(createdPatient)).thenReturn(createdR4Patient);
+        when(nhsPatientMapper.toNhsPatient(patient, patientId)).thenReturn(nhsPatient);
+        when(nhsPatientMapper.enhance(Matchers.any(Patient.class), Matchers.eq(nhsPatient))).thenReturn(expectedPatient);
+
+        Patient registeredPatient = gpConnectPatientService.register(patient);
+
+        assertThat(registeredPatient, equalTo(expectedPatient));
+        assertThat(nhsPatient.registrationType, equalTo("T"));
+        verify(nhsPatientService).create(nhsPatient);
+        verify(fhirPatientDao, never()).get(Matchers.anyString());
+        verify(nhsPatientService, never()).findById(Matchers.anyLong());
+    }
+
+    @Test
+    public void shouldRejectKnownNhsNumberBeforeCreatingPatient() {
+        Patient patient = getValidGPConnectPatient(VALID_NHS_NUMBER);
+        when(nhsPatientService.findPatientIdByNhsNumber(VALID_NHS_NUMBER)).thenReturn(1L);
+
+        assertThatGPConnectExceptionIsThrownWithCorrectOperationOutcome(() -> gpConnectPatientService.save(patient,true), ResourceVersionConflictException.class,
+            "DUPLICATE_REJECTED", "Create would lead to creation of a duplicate resource", IssueType.DUPLICATE, "Nhs Number already in use");
+
+        verify(fhirPatientDao, never()).createOrUpdate(Matchers.any());
+        verify(nhsPatientService, never()).create(Matchers.any());
+    }
+
+    @Test
+    public void shouldRejectNhsNumberAlreadyHeldAsPatientIdentifier() {
+        Patient patient = getValidGPConnectPatient(VALID_NHS_NUMBER);
+        when(nhsPatientService.isNhsNumberAssigned(VALID_NHS_NUMBER)).thenReturn(true);
+
+        assertThatGPConnectExceptionIsThrownWithCorrectOperationOutcome(() -> gpConnectPatientService.save(patient,true), ResourceVersionConflictException.class,
+            "DUPLICATE_REJECTED", "Create would lead to creation of a duplicate resource", IssueType.DUPLICATE, "Nhs Number already in use");
+
+        verify(fhirPatientDao, never()).createOrUpdate(Matchers.any());
+    }
+
+    @Test(expected = ConstraintViolationException.class)
+    public void shouldRethrowConstraintViolationsOfOtherConstraints() {
+        Patient patient = getValidGPConnectPatient(VALID_NHS_NUMBER);
+        org.openmrs.Patient createdPatient = new org.openmrs.Patient();
+        createdPatient.setPatientId(1);
+
+        NhsPatient nhsPatient = new NhsPatient();
+        when(fhirPatientDao.createOrUpdate(Matchers.any())).thenReturn(createdPatient);
+        when(nhsPatientMapper.toNhsPatient(patient, 1)).thenReturn(nhsPatient);
+        doThrow(new ConstraintViolationException("fk", null, "nhs_patient_patient_fk"))
+                .when(nhsPatientService).create(nhsPatient);
+
+        gpConnectPatientService.save(patient,true);
+    }
+
     @Test
     public void shouldThrowExceptionWhenRegisteringDuplicatePatient() {
         Patient patient = getValidGPConnectPatient(VALID_NHS_NUMBER);
+        org.openmrs.Patient createdPatient = new org.openmrs.Patient();
+        createdPatient.setPatientId(1);
 
-        when(fhirPatientDao.getSearchResults(Matchers.any(), Matchers.any()))
-                .thenReturn(Collections.singletonList(new org.openmrs.Patient()));
+        NhsPatient nhsPatient = new NhsPatient();
+        when(fhirPatientDao.createOrUpdate(Matchers.any())).thenReturn(createdPatient);
+        when(nhsPatientMapper.toNhsPatient(patient, 1)).thenReturn(nhsPatient);
+        doThrow(new ConstraintViolationException("duplicate", null, "nhs_patient_nhs_number_idx"))
+                .when(nhsPatientService).create(nhsPatient);
 
         assertThatGPConnectExceptionIsThrownWithCorrectOperationOutcome(() -> gpConnectPatientService.save(patient,true), ResourceVersionConflictException.class,
             "DUPLICATE_REJECTED", "Create would lead to creation of a duplicate resource", IssueType.DUPLICATE, "Nhs Number already in use");
+    }
+
+    @Test
+    public void shouldReportTableQualifiedNhsNumberIndexViolationAsDuplicate() {
+        Patient patient = getValidGPConnectPatient(VALID_NHS_NUMBER);
+        org.openmrs.Patient createdPatient = new org.openmrs.Patient();
+        createdPatient.setPatientId(1);
 
-        ArgumentCaptor<SearchParameterMap> searchParameterMapArgumentCaptor = ArgumentCaptor
-                .forClass(SearchParameterMap.class);
-        verify(fhirPatientDao).getSearchResults(searchParameterMapArgumentCaptor.capture(), Matchers.any());
-        SearchParameterMap value = searchParameterMapArgumentCaptor.getValue();
-        TokenAndListParam tokenAndListParam = (TokenAndListParam) value.getParameters("identifier.search.handler")
-                .get(0).getParam();
-        assertNhsNumber(tokenAndListParam, VALID_NHS_NUMBER);
+        NhsPatient nhsPatient = new NhsPatient();
+        when(fhirPatientDao.createOrUpdate(Matchers.any())).thenReturn(createdPatient);
+        when(nhsPatientMapper.toNhsPatient(patient, 1)).thenReturn(nhsPatient);
+        doThrow(new ConstraintViolationException("duplicate", null, "nhs_patient.nhs_patient_nhs_number_idx"))
+                .when(nhsPatientService).create(nhsPatient);
+
+        assertThatGPConnectExceptionIsThrownWithCorrectOperationOutcome(() -> gpConnectPatientService.save(patient,true), ResourceVersionConflictException.class,
+            "DUPLICATE_REJECTED", "Create would lead to creation of a duplicate resource", IssueType.DUPLICATE, "Nhs Number already in use");
     }
 
     private void addPatientTelecom(Patient patient, ContactPoint.ContactPointSystem contactPointSystem, ContactPoint.ContactPointUse contactPointUse, String contactValue) {
@@ -142,12 +212,6 @@ public class GPConnectPatientServiceTest {
         patient.addTelecom(contactPoint);
     }
 
-    private void assertNhsNumber(TokenAndListParam tokenAndListParam, String nhsNumber) {
-        TokenParam tokenParam = tokenAndListParam.getValuesAsQueryTokens().get(0).getValuesAsQueryTokens().get(0);
-        assertThat(tokenParam.getSystem(), equalTo(Extensions.NHS_NUMBER_SYSTEM));
-        assertThat(tokenParam.getValue(), equalTo(nhsNumber));
-    }
-
     private Patient getValidGPConnectPatient(String nhsNumber) {
         Patient patient = new Patient();
         patient.setBirthDate(new Date());
@@ -0,0 +1,54 @@
+package org.openmrs.module.gpconnect.services;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Mockito.when;
+
+import java.util.Collections;
+
+import ca.uhn.fhir.rest.api.server.IBundleProvider;
+import org.hl7.fhir.r4.model.Practitioner;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+import org.openmrs.Provider;
+import org.openmrs.module.gpconnect.dao.ProviderDao;
+import org.openmrs.module.gpconnect.translators.PractitionerTranslator;
+
+@RunWith(MockitoJUnitRunner.class)
+public class GPConnectPractitionerServiceTest {
+
+    private static final String SDS_USER_ID = "G22222226";
+
+    @Mock
+    private ProviderDao providerDao;
+
+    @Mock
+    private PractitionerTranslator practitionerTranslator;
+
+    @InjectMocks
+    private GPConnectPractitionerService gpConnectPractitionerService;
+
+    @Test
+    public void shouldTranslateTheProvidersFoundBySdsUserId() {
+        Provider provider = new Provider();
+        Practitioner practitioner = new Practitioner();
+        practitioner.setId("abc");
+        when(providerDao.getBySdsUserId(SDS_USER_ID)).thenReturn(Collections.singletonList(provider));
+        when(practitionerTranslator.toFhirResource(provider)).thenReturn(practitioner);
+
+        IBundleProvider practitioners = gpConnectPractitionerService.searchBySdsUserId(SDS_USER_ID);
+
+        assertThat(practitioners.size(), equalTo(1));
+        assertThat(practitioners.getResources(0, 1).get(0), equalTo(practitioner));
+    }
+
+    @Test
+    public void shouldReturnNoPractitionersWhenNoProviderHasTheSdsUserId() {
+        when(providerDao.getBySdsUserId(SDS_USER_ID)).thenReturn(Collections.emptyList());
+
+        assertThat(gpConnectPractitionerService.searchBySdsUserId(SDS_USER_ID).size(), equalTo(0));
+    }
+}
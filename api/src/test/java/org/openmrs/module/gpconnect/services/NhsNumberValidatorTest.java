@@ -5,6 +5,7 @@ import org.junit.Test;
 import java.util.Arrays;
 import java.util.List;
 
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 
@@ -34,5 +35,17 @@ public class NhsNumberValidatorTest {
         });
     }
 
+    @Test
+    public void shouldShowAsInvalidNumbersWhoseCheckDigitWouldBeTen() {
+        assertFalse(NhsNumberValidator.validate("1000000010"));
+    }
+
+    @Test
+    public void shouldValidateAllNumbersInBulk() {
+        boolean[] results = NhsNumberValidator.validateAll(new CharSequence[] { "9658218865", "9000000000", "abcd", null });
+
+        assertArrayEquals(new boolean[] { true, false, false, false }, results);
+    }
+
 }
 
@@ -0,0 +1,90 @@
+package org.openmrs.module.gpconnect.services;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+import org.openmrs.module.gpconnect.dao.NhsPatientDao;
+import org.openmrs.module.gpconnect.entity.NhsPatient;
+
+@RunWith(MockitoJUnitRunner.class)
+public class NhsPatientServiceTest {
+
+    @Mock
+    private NhsPatientDao nhsPatientDao;
+
+    @InjectMocks
+    private NhsPatientService nhsPatientService;
+
+    @Test
+    public void shouldServeRepeatedReadsFromCache() {
+        NhsPatient nhsPatient = nhsPatient(1L);
+        when(nhsPatientDao.getPatientById(1L)).thenReturn(nhsPatient);
+
+        assertThat(nhsPatientService.findById(1L), equalTo(nhsPatient));
+        assertThat(nhsPatientService.findById(1L), equalTo(nhsPatient));
+
+        verify(nhsPatientDao, times(1)).getPatientById(1L);
+        assertThat(nhsPatientService.getHits(), equalTo(1L));
+        assertThat(nhsPatientService.getMisses(), equalTo(1L));
+    }
+
+    @Test
+    public void shouldNotShareCachedInstancesWithCallers() {
+        NhsPatient nhsPatient = nhsPatient(1L);
+        nhsPatient.setNhsNumber("9658218865");
+        when(nhsPatientDao.getPatientById(1L)).thenReturn(nhsPatient);
+
+        NhsPatient loaded = nhsPatientService.findById(1L);
+        loaded.setNhsNumber("changed");
+        NhsPatient cached = nhsPatientService.findById(1L);
+
+        assertThat(cached.getNhsNumber(), equalTo("9658218865"));
+        assertThat(cached == nhsPatientService.findById(1L), equalTo(false));
+    }
+
+    @Test
+    public void shouldReloadPatientAfterItIsSaved() {
+        NhsPatient nhsPatient = nhsPatient(1L);
+        when(nhsPatientDao.getPatientById(1L)).thenReturn(nhsPatient);
+
+        nhsPatientService.findById(1L);
+        nhsPatientService.saveOrUpdate(nhsPatient);
+        nhsPatientService.findById(1L);
+
+        verify(nhsPatientDao).saveOrUpdate(nhsPatient);
+        verify(nhsPatientDao, times(2)).getPatientById(1L);
+    }
+
+    @Test
+    public void shouldOnlyLoadUncachedPatientsInBulk() {
+        NhsPatient cachedPatient = nhsPatient(1L);
+        NhsPatient uncachedPatient = nhsPatient(2L);
+        when(nhsPatientDao.getPatientById(1L)).thenReturn(cachedPatient);
+        when(nhsPatientDao.findAllByIds(Collections.singletonList(2L))).thenReturn(Collections.singletonList(uncachedPatient));
+
+        nhsPatientService.findById(1L);
+        Map<Long, NhsPatient> nhsPatients = nhsPatientService.findAllByIds(Arrays.asList(1L, 2L));
+
+        assertThat(nhsPatients.get(1L), equalTo(cachedPatient));
+        assertThat(nhsPatients.get(2L), equalTo(uncachedPatient));
+        verify(nhsPatientDao).findAllByIds(Collections.singletonList(2L));
+    }
+
+    private NhsPatient nhsPatient(long id) {
+        NhsPatient nhsPatient = new NhsPatient();
+        nhsPatient.setId(id);
+        return nhsPatient;
+    }
+}
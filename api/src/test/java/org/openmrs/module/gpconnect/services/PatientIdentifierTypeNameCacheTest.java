@@ -0,0 +1,60 @@
+package org.openmrs.module.gpconnect.services;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+import org.openmrs.module.gpconnect.dao.PatientIdentifierTypeDao;
+
+@RunWith(MockitoJUnitRunner.class)
+public class PatientIdentifierTypeNameCacheTest {
+
+    private static final String NHS_NUMBER_SYSTEM = "https://fhir.nhs.uk/Id/nhs-number";
+
+    @Mock
+    private PatientIdentifierTypeDao patientIdentifierTypeDao;
+
+    @InjectMocks
+    private PatientIdentifierTypeNameCache identifierTypeNameCache;
+
+    @Test
+    public void shouldQueryTheNamesOnlyOnce() {
+        when(patientIdentifierTypeDao.getUnretiredNames()).thenReturn(Collections.singletonList(NHS_NUMBER_SYSTEM));
+
+        assertTrue(identifierTypeNameCache.contains(NHS_NUMBER_SYSTEM));
+        assertFalse(identifierTypeNameCache.contains("Test"));
+
+        verify(patientIdentifierTypeDao, times(1)).getUnretiredNames();
+    }
+
+    @Test
+    public void shouldReloadTheNamesAfterInvalidation() {
+        when(patientIdentifierTypeDao.getUnretiredNames()).thenReturn(Collections.singletonList(NHS_NUMBER_SYSTEM))
+                .thenReturn(Arrays.asList(NHS_NUMBER_SYSTEM, "Test"));
+
+        assertFalse(identifierTypeNameCache.contains("Test"));
+        identifierTypeNameCache.invalidate();
+
+        assertTrue(identifierTypeNameCache.contains("Test"));
+        verify(patientIdentifierTypeDao, times(2)).getUnretiredNames();
+    }
+
+    @Test
+    public void shouldMatchNamesIgnoringCase() {
+        when(patientIdentifierTypeDao.getUnretiredNames()).thenReturn(Collections.singletonList("https://fhir.nhs.uk/Id/NHS-Number"));
+
+        assertTrue(identifierTypeNameCache.contains(NHS_NUMBER_SYSTEM));
+        assertTrue(identifierTypeNameCache.contains("HTTPS://FHIR.NHS.UK/ID/NHS-NUMBER"));
+        assertFalse(identifierTypeNameCache.contains(null));
+    }
+}
@@ -0,0 +1,179 @@
+package org.openmrs.module.gpconnect.services;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.not;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyCollectionOf;
+import static org.mockito.Matchers.anyListOf;
+import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.hibernate.exception.ConstraintViolationException;
+import org.hl7.fhir.dstu3.model.Bundle;
+import org.hl7.fhir.dstu3.model.OperationOutcome;
+import org.hl7.fhir.dstu3.model.Patient;
+import org.hl7.fhir.dstu3.model.Practitioner;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+import org.openmrs.Provider;
+import org.openmrs.module.gpconnect.dao.ProviderDao;
+import org.openmrs.module.gpconnect.translators.PractitionerTranslator;
+
+@RunWith(MockitoJUnitRunner.class)
+public class PractitionerBatchImportServiceTest {
+
+    @Mock
+    private PractitionerTranslator practitionerTranslator;
+
+    @Mock
+    private ProviderChunkWriter providerChunkWriter;
+
+    @Mock
+    private ProviderDao providerDao;
+
+    @InjectMocks
+    private PractitionerBatchImportService practitionerBatchImportService;
+
+    @Test
+    public void shouldWriteEntriesInChunks() {
+        when(practitionerTranslator.toOpenmrsType(any(org.hl7.fhir.r4.model.Practitioner.class))).thenAnswer(
+                invocation -> provider(((org.hl7.fhir.r4.model.Practitioner) invocation.getArguments()[0]).getIdElement().getIdPart()));
+
+        Bundle bundle = new Bundle();
+        for (int i = 0; i < PractitionerBatchImportService.CHUNK_SIZE + 1; i++) {
+            bundle.addEntry().setResource(practitioner("practitioner-" + i));
+        }
+
+        Bundle response = practitionerBatchImportService.importPractitioners(bundle);
+
+        verify(providerChunkWriter, times(2)).saveAll(anyListOf(Provider.class));
+        assertThat(response.getType(), equalTo(Bundle.BundleType.BATCHRESPONSE));
+        assertThat(response.getEntry().size(), equalTo(PractitionerBatchImportService.CHUNK_SIZE + 1));
+        assertThat(response.getEntry().get(0).getResponse().getStatus(), equalTo("201 Created"));
+        assertThat(response.getEntry().get(0).getResponse().getLocation(), equalTo("Practitioner/practitioner-0"));
+    }
+
+    @Test
+    public void shouldRejectPractitionersThatAlreadyExistBeforeWriting() {
+        Provider existingUuid = provider("existing");
+        Provider existingSdsUserId = provider("new", "G11111111");
+        when(practitionerTranslator.toOpenmrsType(any(org.hl7.fhir.r4.model.Practitioner.class)))
+                .thenReturn(existingUuid, existingSdsUserId);
+        when(providerDao.getStoredUuids(Arrays.asList("existing", "new"))).thenReturn(Collections.singleton("existing"));
+        when(providerDao.getSdsUserIdsInUse(Collections.singletonList("G11111111")))
+                .thenReturn(Collections.singleton("G11111111"));
+
+        Bundle bundle = new Bundle();
+        bundle.addEntry().setResource(practitioner("existing"));
+        bundle.addEntry().setResource(practitioner("new"));
+
+        Bundle response = practitionerBatchImportService.importPractitioners(bundle);
+
+        assertThat(response.getEntry().get(0).getResponse().getStatus(), equalTo("409 Conflict"));
+        assertThat(response.getEntry().get(1).getResponse().getStatus(), equalTo("409 Conflict"));
+        assertThat(diagnostics(response.getEntry().get(1)), equalTo("A practitioner with SDS user id G11111111 already exists"));
+        verify(providerChunkWriter, never()).saveAll(anyListOf(Provider.class));
+        verify(providerDao, times(1)).getStoredUuids(anyCollectionOf(String.class));
+        verify(providerDao, times(1)).getSdsUserIdsInUse(anyCollectionOf(String.class));
+    }
+
+    @Test
+    public void shouldRejectRepeatedSdsUserIdWithinTheBundle() {
+        when(practitionerTranslator.toOpenmrsType(any(org.hl7.fhir.r4.model.Practitioner.class)))
+                .thenReturn(provider("first", "G11111111"), provider("second", "G11111111"));
+
+        Bundle bundle = new Bundle();
+        bundle.addEntry().setResource(practitioner("first"));
+        bundle.addEntry().setResource(practitioner("second"));
+
+        Bundle response = practitionerBatchImportService.importPractitioners(bundle);
+
+        assertThat(response.getEntry().get(0).getResponse().getStatus(), equalTo("201 Created"));
+        assertThat(response.getEntry().get(1).getResponse().getStatus(), equalTo("409 Conflict"));
+    }
+
+    @Test
+    public void shouldGiveEachPractitionerWithoutAnIdItsOwnUuid() {
+        when(practitionerTranslator.toOpenmrsType(any(org.hl7.fhir.r4.model.Practitioner.class))).thenAnswer(
+                invocation -> provider(((org.hl7.fhir.r4.model.Practitioner) invocation.getArguments()[0]).getIdElement().getIdPart()));
+
+        Bundle bundle = new Bundle();
+        bundle.addEntry().setResource(new Practitioner());
+        bundle.addEntry().setResource(new Practitioner());
+
+        Bundle response = practitionerBatchImportService.importPractitioners(bundle);
+
+        assertThat(response.getEntry().get(0).getResponse().getStatus(), equalTo("201 Created"));
+        assertThat(response.getEntry().get(1).getResponse().getStatus(), equalTo("201 Created"));
+        assertThat(response.getEntry().get(0).getResponse().getLocation(),
+                not(equalTo(response.getEntry().get(1).getResponse().getLocation())));
+        assertThat(response.getEntry().get(0).getResponse().getLocation(), not(equalTo("Practitioner/null")));
+    }
+
+    @Test
+    public void shouldOnlyRejectTheFailingEntriesOfAFailedChunk() {
+        Provider duplicate = provider("duplicate");
+        Provider valid = provider("valid");
+        Provider invalid = provider("invalid");
+        Provider retriedDuplicate = provider("duplicate");
+        Provider retriedValid = provider("valid");
+        Provider retriedInvalid = provider("invalid");
+        when(practitionerTranslator.toOpenmrsType(any(org.hl7.fhir.r4.model.Practitioner.class)))
+                .thenReturn(duplicate, valid, invalid, retriedDuplicate, retriedValid, retriedInvalid);
+        // written concurrently by another request after the chunk was checked
+        when(providerDao.getStoredUuids(Collections.singletonList("duplicate")))
+                .thenReturn(Collections.singleton("duplicate"));
+
+        ConstraintViolationException violation = new ConstraintViolationException("violation", null, "provider_uuid_index");
+        doThrow(violation).when(providerChunkWriter).saveAll(Arrays.asList(duplicate, valid, invalid));
+        doThrow(violation).when(providerChunkWriter).saveInNewTransaction(retriedDuplicate);
+        doNothing().when(providerChunkWriter).saveInNewTransaction(retriedValid);
+        doThrow(new IllegalArgumentException("Invalid provider")).when(providerChunkWriter)
+                .saveInNewTransaction(retriedInvalid);
+
+        Bundle bundle = new Bundle();
+        bundle.addEntry().setResource(practitioner("duplicate"));
+        bundle.addEntry().setResource(practitioner("valid"));
+        bundle.addEntry().setResource(practitioner("invalid"));
+        bundle.addEntry().setResource(new Patient());
+
+        Bundle response = practitionerBatchImportService.importPractitioners(bundle);
+
+        assertThat(response.getEntry().get(0).getResponse().getStatus(), equalTo("409 Conflict"));
+        assertThat(response.getEntry().get(1).getResponse().getStatus(), equalTo("201 Created"));
+        assertThat(response.getEntry().get(2).getResponse().getStatus(), equalTo("422 Unprocessable Entity"));
+        assertThat(response.getEntry().get(3).getResponse().getStatus(), equalTo("422 Unprocessable Entity"));
+    }
+
+    private String diagnostics(Bundle.BundleEntryComponent entry) {
+        return ((OperationOutcome) entry.getResponse().getOutcome()).getIssueFirstRep().getDiagnostics();
+    }
+
+    private Practitioner practitioner(String id) {
+        Practitioner practitioner = new Practitioner();
+        practitioner.setId(id);
+        return practitioner;
+    }
+
+    private Provider provider(String uuid) {
+        return provider(uuid, null);
+    }
+
+    private Provider provider(String uuid, String sdsUserId) {
+        Provider provider = new Provider();
+        provider.setUuid(uuid);
+        provider.setIdentifier(sdsUserId);
+        return provider;
+    }
+}
@@ -0,0 +1,50 @@
+package org.openmrs.module.gpconnect.translators;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.notNullValue;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+import org.hl7.fhir.r4.model.Organization;
+import org.junit.Test;
+import org.openmrs.module.gpconnect.models.OpenmrsOrganization;
+
+public class FhirOrganizationTranslatorTest {
+
+    private final FhirOrganizationTranslator translator = new FhirOrganizationTranslator();
+
+    @Test
+    public void shouldTranslateUuidNameAndOdsCode() {
+        Organization organization = new Organization();
+        organization.setId("5f57a4d8-7a21-4b7e-9bc3-fc1a4aea01a5");
+        organization.setName("The Surgery");
+        organization.addIdentifier().setSystem("https://example.org/other").setValue("other");
+        organization.addIdentifier().setSystem(FhirOrganizationTranslator.ODS_ORGANIZATION_CODE_SYSTEM).setValue("A12345");
+
+        OpenmrsOrganization openmrsOrganization = translator.toOpenmrsType(organization);
+
+        assertThat(openmrsOrganization.getUuid(), equalTo("5f57a4d8-7a21-4b7e-9bc3-fc1a4aea01a5"));
+        assertThat(openmrsOrganization.getName(), equalTo("The Surgery"));
+        assertThat(openmrsOrganization.getOdsCode(), equalTo("A12345"));
+    }
+
+    @Test
+    public void shouldGenerateUuidAndLeaveOdsCodeEmptyWhenNotGiven() {
+        OpenmrsOrganization openmrsOrganization = translator.toOpenmrsType(new Organization().setName("The Surgery"));
+
+        assertThat(openmrsOrganization.getUuid(), notNullValue());
+        assertThat(openmrsOrganization.getOdsCode(), nullValue());
+    }
+
+    @Test
+    public void shouldRoundTripOdsCode() {
+        Organization organization = new Organization();
+        organization.setId("5f57a4d8-7a21-4b7e-9bc3-fc1a4aea01a5");
+        organization.addIdentifier().setSystem(FhirOrganizationTranslator.ODS_ORGANIZATION_CODE_SYSTEM).setValue("A12345");
+
+        Organization translated = translator.toFhirResource(translator.toOpenmrsType(organization));
+
+        assertThat(translated.getIdentifierFirstRep().getSystem(), equalTo(FhirOrganizationTranslator.ODS_ORGANIZATION_CODE_SYSTEM));
+        assertThat(translated.getIdentifierFirstRep().getValue(), equalTo("A12345"));
+    }
+}
@@ -1,5 +1,7 @@
 package org.openmrs.module.gpconnect.translators;
 
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
 import org.hl7.fhir.r4.model.Identifier;
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -12,7 +14,10 @@ import org.openmrs.api.ProviderService;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.sameInstance;
 import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @RunWith(MockitoJUnitRunner.class)
@@ -23,6 +28,12 @@ public class SdsRoleProfileIdTranslatorImplTest {
     @Mock
     ProviderService providerService;
 
+    @Mock
+    SessionFactory sessionFactory;
+
+    @Mock
+    Session session;
+
     @InjectMocks
     SdsRoleProfileIdTranslatorImpl sdsRoleProfileIdTranslator;
 
@@ -42,6 +53,30 @@ public class SdsRoleProfileIdTranslatorImplTest {
         assertThat(actualProviderAttribute.getAttributeType().getName(), equalTo("SDS role profile id"));
     }
 
+    @Test
+    public void shouldLookUpTheSdsRoleProfileIdAttributeTypeOnlyOnceUntilInvalidated() {
+        Identifier identifier = new Identifier();
+        identifier.setSystem(VALID_SDS_ROLE_PROFILE_ID_IDENTIFIER_SYSTEM);
+        identifier.setValue(VALID_PRACTITIONER_ROLE_PROFILE_ID);
+
+        ProviderAttributeType providerAttributeType = new ProviderAttributeType();
+        providerAttributeType.setId(7);
+        ProviderAttributeType reference = new ProviderAttributeType();
+        reference.setId(7);
+        when(providerService.getProviderAttributeTypeByUuid(any())).thenReturn(providerAttributeType);
+        when(sessionFactory.getCurrentSession()).thenReturn(session);
+        when(session.load(ProviderAttributeType.class, 7)).thenReturn(reference);
+
+        sdsRoleProfileIdTranslator.toOpenmrsType(identifier);
+        ProviderAttribute providerAttribute = sdsRoleProfileIdTranslator.toOpenmrsType(identifier);
+        verify(providerService, times(1)).getProviderAttributeTypeByUuid(any());
+        assertThat(providerAttribute.getAttributeType(), sameInstance(reference));
+
+        sdsRoleProfileIdTranslator.invalidate();
+        sdsRoleProfileIdTranslator.toOpenmrsType(identifier);
+        verify(providerService, times(2)).getProviderAttributeTypeByUuid(any());
+    }
+
     @Test
     public void shouldReturnIdentifierWithSdsRoleProfileIdGivenProviderAttributeWithSdsRoleProfileId() {
         ProviderAttributeType providerAttributeType = new ProviderAttributeType();
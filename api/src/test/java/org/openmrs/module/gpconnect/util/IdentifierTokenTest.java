@@ -0,0 +1,79 @@
+package org.openmrs.module.gpconnect.util;
+
+import ca.uhn.fhir.rest.api.server.RequestDetails;
+import ca.uhn.fhir.rest.param.TokenParam;
+import java.util.HashMap;
+import java.util.Map;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class IdentifierTokenTest {
+
+    @Test
+    public void shouldSplitSystemAndValueAtTheFirstSeparator() {
+        IdentifierToken token = IdentifierToken.parse("https://fhir.nhs.uk/Id/sds-user-id|G11111111");
+
+        assertEquals("https://fhir.nhs.uk/Id/sds-user-id", token.getSystem());
+        assertEquals("G11111111", token.getValue());
+        assertEquals(1, token.getSeparatorCount());
+        assertFalse(token.hasMultipleValues());
+        assertFalse(token.hasExtraSeparators());
+    }
+
+    @Test
+    public void shouldHaveNoValueWhenThereIsNoSeparator() {
+        IdentifierToken token = IdentifierToken.parse("https://fhir.nhs.uk/Id/sds-user-id");
+
+        assertEquals(0, token.getSeparatorCount());
+        assertTrue(token.hasSystem());
+        assertNull(token.getValue());
+        assertFalse(token.hasValue());
+    }
+
+    @Test
+    public void shouldDetectCommaSeparatedValues() {
+        IdentifierToken token = IdentifierToken.parse("https://fhir.nhs.uk/Id/sds-user-id|G11111111,G22345655");
+
+        assertTrue(token.hasMultipleValues());
+        assertFalse(IdentifierToken.parse("https://fhir.nhs.uk/Id/sds-user-id|G11111111,").hasMultipleValues());
+    }
+
+    @Test
+    public void shouldDetectExtraSeparators() {
+        IdentifierToken token = IdentifierToken.parse("https://fhir.nhs.uk/Id/sds-user-id|G11111111|G22345655");
+
+        assertEquals(2, token.getSeparatorCount());
+        assertTrue(token.hasExtraSeparators());
+        assertEquals("G11111111|G22345655", token.getValue());
+    }
+
+    @Test
+    public void shouldCountTheSeparatorAlreadyConsumedByTokenParam() {
+        IdentifierToken token = IdentifierToken.of(new TokenParam("https://fhir.nhs.uk/Id/sds-user-id", "G11111111|G22345655"));
+
+        assertEquals(2, token.getSeparatorCount());
+        assertTrue(token.hasExtraSeparators());
+        assertEquals(token.getSeparatorCount(), IdentifierToken.parse(token.getText()).getSeparatorCount());
+    }
+
+    @Test
+    public void shouldReadBackTheTokenStoredOnTheRequest() {
+        Map<Object, Object> userData = new HashMap<>();
+        RequestDetails requestDetails = mock(RequestDetails.class);
+        when(requestDetails.getUserData()).thenReturn(userData);
+
+        assertNull(IdentifierToken.from(requestDetails));
+
+        IdentifierToken token = IdentifierToken.parse("https://fhir.nhs.uk/Id/sds-user-id|G11111111");
+        token.storeOn(requestDetails);
+
+        assertSame(token, IdentifierToken.from(requestDetails));
+    }
+}
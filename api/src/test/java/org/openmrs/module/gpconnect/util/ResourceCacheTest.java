@@ -0,0 +1,75 @@
+package org.openmrs.module.gpconnect.util;
+
+import org.hl7.fhir.dstu3.model.Organization;
+import org.junit.After;
+import org.junit.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+
+public class ResourceCacheTest {
+
+    private final ResourceCache<Organization> cache = new ResourceCache<>(10);
+
+    @After
+    public void clearSynchronization() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    public void shouldNotShareCachedResourcesWithCallers() {
+        Organization organization = new Organization().setName("Surgery");
+        cache.put("abc", organization);
+        organization.setName("Changed after caching");
+
+        Organization first = cache.get("abc");
+        first.setName("Changed by caller");
+
+        assertEquals("Surgery", cache.get("abc").getName());
+        assertNotSame(first, cache.get("abc"));
+    }
+
+    @Test
+    public void shouldForgetInvalidatedResources() {
+        cache.put("abc", new Organization().setName("Surgery"));
+
+        cache.invalidate("abc");
+
+        assertNull(cache.get("abc"));
+        assertEquals(1, cache.getMisses());
+    }
+
+    @Test
+    public void shouldEvictAgainWhenTheTransactionCompletes() {
+        TransactionSynchronizationManager.initSynchronization();
+        cache.put("abc", new Organization().setName("Surgery"));
+
+        cache.invalidate("abc");
+        cache.put("abc", new Organization().setName("Read before the change committed"));
+        completeTransaction();
+
+        assertNull(cache.get("abc"));
+    }
+
+    @Test
+    public void shouldEvictEverythingAgainWhenTheTransactionCompletes() {
+        TransactionSynchronizationManager.initSynchronization();
+
+        cache.invalidateAll();
+        cache.put("abc", new Organization().setName("Read before the change committed"));
+        completeTransaction();
+
+        assertNull(cache.get("abc"));
+    }
+
+    private void completeTransaction() {
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            synchronization.afterCompletion(TransactionSynchronization.STATUS_COMMITTED);
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package org.openmrs.module.gpconnect.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openmrs.module.gpconnect.mappers.CodeableConceptExtension;
+import org.openmrs.module.gpconnect.mappers.valueSets.EthnicCategory;
+import org.openmrs.module.gpconnect.util.CodeSystems;
+import org.openmrs.module.gpconnect.util.Extensions;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CodeableConceptExtensionBenchmark {
+
+	private CodeableConceptExtension ethnicCategory;
+
+	private String[] codes;
+
+	@Setup
+	public void setUp() {
+		ethnicCategory = new CodeableConceptExtension(Extensions.ETHNIC_CATEGORY_URL, CodeSystems.ETHNIC_CATEGORY,
+		        EthnicCategory.dict());
+		List<String> knownCodes = new ArrayList<>(EthnicCategory.dict().keySet());
+		knownCodes.sort(null);
+		codes = knownCodes.toArray(new String[0]);
+	}
+
+	@Benchmark
+	public void createExtension(Blackhole blackhole) {
+		for (String code : codes) {
+			blackhole.consume(ethnicCategory.createExtension(code));
+		}
+	}
+}
@@ -0,0 +1,41 @@
+package org.openmrs.module.gpconnect.benchmarks;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Copy of the string-splitting NhsNumberValidator that the char based implementation replaced, kept
+ * as the baseline for {@link NhsNumberValidatorBenchmark}.
+ */
+final class LegacyNhsNumberValidator {
+
+	private static final String DIGITS = "1234567890";
+
+	private static final int NHS_NUMBER_LENGTH = 10;
+
+	private static final int MODULO_11 = 11;
+
+	private LegacyNhsNumberValidator() {
+	}
+
+	static boolean validate(String nhsNumber) {
+		return nhsNumber.length() == NHS_NUMBER_LENGTH && areDigitsValid(nhsNumber)
+		        && isMatchingCheckDigit(Arrays.stream(nhsNumber.split("")).map(Integer::parseInt).collect(Collectors.toList()));
+	}
+
+	private static boolean isMatchingCheckDigit(List<Integer> digits) {
+		List<Integer> validNumbers = Arrays.asList(0, 1, 2, 3, 4, 5, 6, 7, 8, 9);
+		int sum = 0;
+		for (int index = 1; index <= 9; index++) {
+			sum += (MODULO_11 - index) * digits.get(index - 1);
+		}
+		int remainder = sum % MODULO_11;
+		int checkDigit = remainder == 0 ? 0 : MODULO_11 - remainder;
+		return validNumbers.contains(checkDigit) && checkDigit == digits.get(9);
+	}
+
+	private static boolean areDigitsValid(String nhsNumber) {
+		return nhsNumber.codePoints().mapToObj(c -> String.valueOf((char) c)).allMatch(DIGITS::contains);
+	}
+}
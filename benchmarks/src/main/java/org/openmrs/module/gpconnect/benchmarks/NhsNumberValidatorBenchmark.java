@@ -0,0 +1,54 @@
+package org.openmrs.module.gpconnect.benchmarks;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openmrs.module.gpconnect.services.NhsNumberValidator;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class NhsNumberValidatorBenchmark {
+
+	private static final int BATCH_SIZE = 1024;
+
+	private String[] nhsNumbers;
+
+	@Setup
+	public void setUp() {
+		nhsNumbers = SyntheticData.nhsNumbers(new Random(42), BATCH_SIZE);
+	}
+
+	@Benchmark
+	public void legacyValidate(Blackhole blackhole) {
+		for (String nhsNumber : nhsNumbers) {
+			blackhole.consume(LegacyNhsNumberValidator.validate(nhsNumber));
+		}
+	}
+
+	@Benchmark
+	public void validate(Blackhole blackhole) {
+		for (String nhsNumber : nhsNumbers) {
+			blackhole.consume(NhsNumberValidator.validate(nhsNumber));
+		}
+	}
+
+	@Benchmark
+	public boolean[] validateAll() {
+		return NhsNumberValidator.validateAll(nhsNumbers);
+	}
+}
@@ -0,0 +1,77 @@
+package org.openmrs.module.gpconnect.benchmarks;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.hl7.fhir.dstu3.model.Patient;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openmrs.module.gpconnect.entity.NhsPatient;
+import org.openmrs.module.gpconnect.mappers.NhsPatientMapper;
+
+/**
+ * {@link NhsPatientMapper#enhance(Patient, NhsPatient)} mutates its argument, so every invocation
+ * works on a copy; {@link #copyPatients} measures that copy on its own.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class NhsPatientMapperBenchmark {
+
+	private static final int BATCH_SIZE = 100;
+
+	private NhsPatientMapper nhsPatientMapper;
+
+	private Patient[] patients;
+
+	private NhsPatient[] nhsPatients;
+
+	private Patient[] enhancedPatients;
+
+	@Setup
+	public void setUp() {
+		Random random = new Random(42);
+		nhsPatientMapper = new NhsPatientMapper();
+		patients = new Patient[BATCH_SIZE];
+		nhsPatients = new NhsPatient[BATCH_SIZE];
+		enhancedPatients = new Patient[BATCH_SIZE];
+		for (int i = 0; i < BATCH_SIZE; i++) {
+			patients[i] = SyntheticData.registrationPatient(random);
+			nhsPatients[i] = SyntheticData.nhsPatient(random, i);
+			enhancedPatients[i] = nhsPatientMapper.enhance(patients[i].copy(), nhsPatients[i]);
+		}
+	}
+
+	@Benchmark
+	public void copyPatients(Blackhole blackhole) {
+		for (Patient patient : patients) {
+			blackhole.consume(patient.copy());
+		}
+	}
+
+	@Benchmark
+	public void enhance(Blackhole blackhole) {
+		for (int i = 0; i < BATCH_SIZE; i++) {
+			blackhole.consume(nhsPatientMapper.enhance(patients[i].copy(), nhsPatients[i]));
+		}
+	}
+
+	@Benchmark
+	public void toNhsPatient(Blackhole blackhole) {
+		for (int i = 0; i < BATCH_SIZE; i++) {
+			blackhole.consume(nhsPatientMapper.toNhsPatient(enhancedPatients[i], i));
+		}
+	}
+}
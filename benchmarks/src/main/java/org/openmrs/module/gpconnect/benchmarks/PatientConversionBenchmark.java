@@ -0,0 +1,65 @@
+package org.openmrs.module.gpconnect.benchmarks;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.hl7.fhir.convertors.conv30_40.Patient30_40;
+import org.hl7.fhir.dstu3.model.Patient;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openmrs.module.gpconnect.mappers.NhsPatientMapper;
+
+/**
+ * STU3 to R4 conversion of a registration and R4 to STU3 conversion of a patient carrying all the
+ * GP Connect extensions, as done on registration and on every read or search row.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PatientConversionBenchmark {
+
+	private static final int BATCH_SIZE = 100;
+
+	private Patient[] dstu3Patients;
+
+	private org.hl7.fhir.r4.model.Patient[] r4Patients;
+
+	@Setup
+	public void setUp() {
+		Random random = new Random(42);
+		NhsPatientMapper nhsPatientMapper = new NhsPatientMapper();
+		dstu3Patients = new Patient[BATCH_SIZE];
+		r4Patients = new org.hl7.fhir.r4.model.Patient[BATCH_SIZE];
+		for (int i = 0; i < BATCH_SIZE; i++) {
+			dstu3Patients[i] = SyntheticData.registrationPatient(random);
+			Patient enhancedPatient = nhsPatientMapper.enhance(dstu3Patients[i].copy(), SyntheticData.nhsPatient(random, i));
+			r4Patients[i] = Patient30_40.convertPatient(enhancedPatient);
+		}
+	}
+
+	@Benchmark
+	public void dstu3ToR4(Blackhole blackhole) {
+		for (Patient patient : dstu3Patients) {
+			blackhole.consume(Patient30_40.convertPatient(patient));
+		}
+	}
+
+	@Benchmark
+	public void r4ToDstu3(Blackhole blackhole) {
+		for (org.hl7.fhir.r4.model.Patient patient : r4Patients) {
+			blackhole.consume(Patient30_40.convertPatient(patient));
+		}
+	}
+}
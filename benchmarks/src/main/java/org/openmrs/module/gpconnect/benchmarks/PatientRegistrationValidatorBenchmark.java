@@ -0,0 +1,46 @@
+package org.openmrs.module.gpconnect.benchmarks;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.hl7.fhir.dstu3.model.Patient;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openmrs.module.gpconnect.services.PatientRegistrationValidator;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PatientRegistrationValidatorBenchmark {
+
+	private static final int BATCH_SIZE = 100;
+
+	private Patient[] patients;
+
+	@Setup
+	public void setUp() {
+		Random random = new Random(42);
+		patients = new Patient[BATCH_SIZE];
+		for (int i = 0; i < BATCH_SIZE; i++) {
+			patients[i] = SyntheticData.registrationPatient(random);
+		}
+	}
+
+	@Benchmark
+	public void validateTemporaryRegistration() {
+		for (Patient patient : patients) {
+			PatientRegistrationValidator.validate(patient, true);
+		}
+	}
+}
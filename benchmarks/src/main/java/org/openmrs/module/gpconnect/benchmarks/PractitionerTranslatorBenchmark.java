@@ -0,0 +1,67 @@
+package org.openmrs.module.gpconnect.benchmarks;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openmrs.Provider;
+import org.openmrs.ProviderAttributeType;
+import org.openmrs.module.fhir2.api.translators.impl.GenderTranslatorImpl;
+import org.openmrs.module.gpconnect.translators.PersonAddressTranslator;
+import org.openmrs.module.gpconnect.translators.PersonNameTranslator;
+import org.openmrs.module.gpconnect.translators.PractitionerTranslator;
+import org.openmrs.module.gpconnect.translators.SdsRoleProfileIdTranslatorImpl;
+
+/**
+ * Name, gender, address and SDS identifier translation use the real translators; data access
+ * collaborators are mocks returning empty results.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PractitionerTranslatorBenchmark {
+
+	private static final int BATCH_SIZE = 100;
+
+	private PractitionerTranslator practitionerTranslator;
+
+	private Provider[] providers;
+
+	@Setup
+	public void setUp() {
+		practitionerTranslator = Wiring.wire(new PractitionerTranslator(),
+		    new GenderTranslatorImpl(),
+		    Wiring.wire(new PersonNameTranslator()),
+		    Wiring.wire(new PersonAddressTranslator()),
+		    Wiring.wire(new SdsRoleProfileIdTranslatorImpl()));
+
+		ProviderAttributeType sdsRoleProfileIdType = new ProviderAttributeType();
+		sdsRoleProfileIdType.setUuid(SdsRoleProfileIdTranslatorImpl.SDS_ROLE_PROFILE_ID_PROVIDER_ATTRIBUTE_TYPE_UUID);
+
+		Random random = new Random(42);
+		providers = new Provider[BATCH_SIZE];
+		for (int i = 0; i < BATCH_SIZE; i++) {
+			providers[i] = SyntheticData.provider(random, sdsRoleProfileIdType);
+		}
+	}
+
+	@Benchmark
+	public void toFhirResource(Blackhole blackhole) {
+		for (Provider provider : providers) {
+			blackhole.consume(practitionerTranslator.toFhirResource(provider));
+		}
+	}
+}
@@ -0,0 +1,159 @@
+package org.openmrs.module.gpconnect.benchmarks;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+
+import org.apache.commons.lang3.time.DateUtils;
+import org.hl7.fhir.dstu3.model.Address;
+import org.hl7.fhir.dstu3.model.ContactPoint;
+import org.hl7.fhir.dstu3.model.Enumerations;
+import org.hl7.fhir.dstu3.model.HumanName;
+import org.hl7.fhir.dstu3.model.Identifier;
+import org.hl7.fhir.dstu3.model.Patient;
+import org.openmrs.Person;
+import org.openmrs.PersonName;
+import org.openmrs.Provider;
+import org.openmrs.ProviderAttribute;
+import org.openmrs.ProviderAttributeType;
+import org.openmrs.module.gpconnect.entity.NhsPatient;
+import org.openmrs.module.gpconnect.mappers.valueSets.DeathNotificationStatus;
+import org.openmrs.module.gpconnect.mappers.valueSets.EthnicCategory;
+import org.openmrs.module.gpconnect.mappers.valueSets.NhsNoVerificationStatus;
+import org.openmrs.module.gpconnect.mappers.valueSets.RegistrationType;
+import org.openmrs.module.gpconnect.mappers.valueSets.ResidentialStatus;
+import org.openmrs.module.gpconnect.mappers.valueSets.TreatmentCategory;
+import org.openmrs.module.gpconnect.util.Extensions;
+
+/**
+ * Deterministic synthetic inputs shared by the benchmarks.
+ */
+final class SyntheticData {
+
+	private static final String[] GIVEN_NAMES = { "Olivia", "Amelia", "Isla", "Ava", "Oliver", "George", "Harry", "Noah" };
+
+	private static final String[] FAMILY_NAMES = { "Smith", "Jones", "Taylor", "Brown", "Williams", "Wilson", "Davies" };
+
+	private static final String[] TOWNS = { "Leeds", "Manchester", "Bristol", "Sheffield", "Norwich", "York" };
+
+	private SyntheticData() {
+	}
+
+	/**
+	 * Mostly valid NHS numbers with a sprinkling of bad check digits and non-digit characters, roughly
+	 * what a bulk import would see.
+	 */
+	static String[] nhsNumbers(Random random, int count) {
+		String[] nhsNumbers = new String[count];
+		for (int i = 0; i < count; i++) {
+			String nhsNumber = validNhsNumber(random);
+			if (i % 10 == 0) {
+				nhsNumber = nhsNumber.substring(0, 9) + ((nhsNumber.charAt(9) - '0' + 1) % 10);
+			} else if (i % 10 == 1) {
+				nhsNumber = nhsNumber.substring(0, 4) + 'X' + nhsNumber.substring(5);
+			}
+			nhsNumbers[i] = nhsNumber;
+		}
+		return nhsNumbers;
+	}
+
+	static String validNhsNumber(Random random) {
+		while (true) {
+			StringBuilder nhsNumber = new StringBuilder(10);
+			int sum = 0;
+			for (int index = 0; index < 9; index++) {
+				int digit = random.nextInt(10);
+				nhsNumber.append(digit);
+				sum += (10 - index) * digit;
+			}
+			int remainder = sum % 11;
+			int checkDigit = remainder == 0 ? 0 : 11 - remainder;
+			if (checkDigit < 10) {
+				return nhsNumber.append(checkDigit).toString();
+			}
+		}
+	}
+
+	/**
+	 * A temporary registration as a GP Connect consumer would send it: NHS number, official name,
+	 * birth date, a home address and non clashing telecoms.
+	 */
+	static Patient registrationPatient(Random random) {
+		Patient patient = new Patient();
+		patient.setId(uuid(random));
+		patient.addIdentifier(new Identifier().setSystem(Extensions.NHS_NUMBER_SYSTEM).setValue(validNhsNumber(random)));
+		patient.addName(new HumanName().setUse(HumanName.NameUse.OFFICIAL).setFamily(pick(random, FAMILY_NAMES))
+		        .addGiven(pick(random, GIVEN_NAMES)).addPrefix("Mx"));
+		patient.setGender(random.nextBoolean() ? Enumerations.AdministrativeGender.FEMALE
+		        : Enumerations.AdministrativeGender.MALE);
+		patient.setBirthDate(DateUtils.addDays(new Date(0), random.nextInt(30000)));
+		patient.addAddress(new Address().setUse(Address.AddressUse.HOME).addLine(random.nextInt(200) + " High Street")
+		        .setCity(pick(random, TOWNS)).setPostalCode("LS1 " + random.nextInt(10) + "AB"));
+		patient.addTelecom(new ContactPoint().setSystem(ContactPoint.ContactPointSystem.PHONE)
+		        .setUse(ContactPoint.ContactPointUse.HOME).setValue("0113 496 " + (1000 + random.nextInt(9000))));
+		patient.addTelecom(new ContactPoint().setSystem(ContactPoint.ContactPointSystem.EMAIL)
+		        .setUse(ContactPoint.ContactPointUse.HOME).setValue("patient" + random.nextInt(100000) + "@example.com"));
+		return patient;
+	}
+
+	static NhsPatient nhsPatient(Random random, long id) {
+		NhsPatient nhsPatient = new NhsPatient();
+		nhsPatient.setId(id);
+		nhsPatient.setNhsNumber(validNhsNumber(random));
+		nhsPatient.setNhsNumberVerificationStatus(pick(random, NhsNoVerificationStatus.dict()));
+		nhsPatient.setEthnicCategory(pick(random, EthnicCategory.dict()));
+		nhsPatient.setResidentialStatus(pick(random, ResidentialStatus.dict()));
+		nhsPatient.setTreatmentCategory(pick(random, TreatmentCategory.dict()));
+		nhsPatient.setRegistrationType(pick(random, RegistrationType.dict()));
+		nhsPatient.setDeathNotificationStatus(pick(random, DeathNotificationStatus.dict()));
+		Date registrationStart = DateUtils.addDays(new Date(0), 10000 + random.nextInt(10000));
+		nhsPatient.setRegistrationStart(registrationStart);
+		nhsPatient.setRegistrationEnd(DateUtils.addMonths(registrationStart, 3));
+		nhsPatient.setPreferredBranch("Location/" + uuid(random));
+		return nhsPatient;
+	}
+
+	static Provider provider(Random random, ProviderAttributeType sdsRoleProfileIdType) {
+		Person person = new Person();
+		person.setUuid(uuid(random));
+		person.setGender(random.nextBoolean() ? "F" : "M");
+		PersonName name = new PersonName(pick(random, GIVEN_NAMES), null, pick(random, FAMILY_NAMES));
+		name.setUuid(uuid(random));
+		name.setPreferred(true);
+		person.addName(name);
+
+		Provider provider = new Provider();
+		provider.setUuid(uuid(random));
+		provider.setIdentifier("G" + (10000000 + random.nextInt(90000000)));
+		provider.setPerson(person);
+		provider.setRetired(false);
+		for (int i = 0; i < 2; i++) {
+			ProviderAttribute attribute = new ProviderAttribute();
+			attribute.setUuid(uuid(random));
+			attribute.setAttributeType(sdsRoleProfileIdType);
+			attribute.setValueReferenceInternal("PT" + (1000 + random.nextInt(9000)));
+			provider.addAttribute(attribute);
+		}
+		return provider;
+	}
+
+	/**
+	 * Draws the uuid from the seeded generator, so every fixture is the same from one run to the next.
+	 */
+	static String uuid(Random random) {
+		return new UUID(random.nextLong(), random.nextLong()).toString();
+	}
+
+	private static String pick(Random random, String[] values) {
+		return values[random.nextInt(values.length)];
+	}
+
+	private static String pick(Random random, Map<String, String> dictionary) {
+		List<String> codes = new ArrayList<>(dictionary.keySet());
+		codes.sort(null);
+		return codes.get(random.nextInt(codes.size()));
+	}
+}
@@ -0,0 +1,46 @@
+package org.openmrs.module.gpconnect.benchmarks;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+
+import org.mockito.Mockito;
+
+/**
+ * Minimal stand-in for Spring autowiring so translators can be benchmarked without an application
+ * context. Fields are filled with the given collaborators where the types match; any other interface
+ * typed field that is still empty gets a Mockito mock.
+ */
+final class Wiring {
+
+	private Wiring() {
+	}
+
+	static <T> T wire(T target, Object... collaborators) {
+		for (Class<?> type = target.getClass(); type != Object.class; type = type.getSuperclass()) {
+			for (Field field : type.getDeclaredFields()) {
+				if (Modifier.isStatic(field.getModifiers()) || Modifier.isFinal(field.getModifiers())) {
+					continue;
+				}
+				field.setAccessible(true);
+				try {
+					if (field.get(target) == null) {
+						field.set(target, collaboratorFor(field.getType(), collaborators));
+					}
+				}
+				catch (IllegalAccessException e) {
+					throw new IllegalStateException("Could not wire " + field, e);
+				}
+			}
+		}
+		return target;
+	}
+
+	private static Object collaboratorFor(Class<?> type, Object[] collaborators) {
+		for (Object collaborator : collaborators) {
+			if (type.isInstance(collaborator)) {
+				return collaborator;
+			}
+		}
+		return type.isInterface() ? Mockito.mock(type) : null;
+	}
+}
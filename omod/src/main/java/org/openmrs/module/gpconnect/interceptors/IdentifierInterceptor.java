@@ -9,44 +9,35 @@ import ca.uhn.fhir.interceptor.api.Pointcut;
 import ca.uhn.fhir.rest.api.RestOperationTypeEnum;
 import ca.uhn.fhir.rest.api.server.RequestDetails;
 import org.openmrs.module.gpconnect.exceptions.GPConnectExceptions;
+import org.openmrs.module.gpconnect.util.IdentifierToken;
 
 @Interceptor
 public class IdentifierInterceptor {
+    private static final String IDENTIFIER_PARAMETER = "identifier";
+
     @Hook(Pointcut.SERVER_INCOMING_REQUEST_PRE_HANDLED)
     public void handleIdentifier(RequestDetails requestDetails, RestOperationTypeEnum operationType) {
-        if (requestDetails.getResourceName() != null && requestDetails.getResourceName().equals("Practitioner") && operationType.name().equals("SEARCH_TYPE") && requestDetails.getParameters().size() >= 1) {
-            if (isTheIdentifierSystemAndValueNotEmpty(requestDetails) && areThereMultipleValuesSeparatedByACommaForIdentifier(requestDetails)) {
-                throw GPConnectExceptions.invalidRequestException("Multiple values detected for non-repeatable parameter 'identifier'."
-                    + "This server is not configured to allow multiple (AND/OR) values for this param.", INVALID_IDENTIFIER_VALUE);
-            } else if (isTheIdentifierSystemEmpty(requestDetails) || isTheIdentifierValueNotGiven(requestDetails)) {
-                String identifierSystemAndValue = requestDetails.getParameters().get("identifier")[0];
-                throw GPConnectExceptions.unprocessableEntityException(
-                    "One or both of the identifier system and value are missing from given identifier : " + identifierSystemAndValue, INVALID_PARAMETER);
-            } else if (areThereMultipleValuesSeparatedByAPipeForIdentifier(requestDetails)) {
-                String identifierSystemAndValue = requestDetails.getParameters().get("identifier")[0];
-                throw GPConnectExceptions.unprocessableEntityException(
-                    "One or both of the identifier system and value are missing from given identifier : " + identifierSystemAndValue, INVALID_IDENTIFIER_VALUE);
-            }
+        if (!"Practitioner".equals(requestDetails.getResourceName()) || operationType != RestOperationTypeEnum.SEARCH_TYPE) {
+            return;
         }
-    }
-
-    private boolean isTheIdentifierValueNotGiven(RequestDetails requestDetails) {
-        return !requestDetails.getParameters().get("identifier")[0].contains("|") && requestDetails.getParameters().get("identifier")[0].split("\\|").length == 1;
-    }
-
-    private boolean isTheIdentifierSystemAndValueNotEmpty(RequestDetails requestDetails) {
-        return requestDetails.getParameters().get("identifier")[0].split("\\|").length == 2;
-    }
 
-    private boolean isTheIdentifierSystemEmpty(RequestDetails requestDetails) {
-        return requestDetails.getParameters().get("identifier")[0].isEmpty();
-    }
-
-    private boolean areThereMultipleValuesSeparatedByAPipeForIdentifier(RequestDetails requestDetails) {
-        return requestDetails.getParameters().get("identifier")[0].split("\\|").length > 2;
-    }
+        String[] identifiers = requestDetails.getParameters().get(IDENTIFIER_PARAMETER);
+        if (identifiers == null || identifiers.length == 0) {
+            return;
+        }
 
-    private boolean areThereMultipleValuesSeparatedByACommaForIdentifier(RequestDetails requestDetails) {
-        return requestDetails.getParameters().get("identifier")[0].split("\\|")[1].split(",").length > 1;
+        IdentifierToken identifier = IdentifierToken.parse(identifiers[0]);
+        identifier.storeOn(requestDetails);
+
+        if (identifier.getSeparatorCount() == 1 && identifier.hasMultipleValues()) {
+            throw GPConnectExceptions.invalidRequestException("Multiple values detected for non-repeatable parameter 'identifier'."
+                + "This server is not configured to allow multiple (AND/OR) values for this param.", INVALID_IDENTIFIER_VALUE);
+        } else if (identifier.isEmpty() || identifier.getSeparatorCount() == 0) {
+            throw GPConnectExceptions.unprocessableEntityException(
+                "One or both of the identifier system and value are missing from given identifier : " + identifier, INVALID_PARAMETER);
+        } else if (identifier.hasExtraSeparators()) {
+            throw GPConnectExceptions.unprocessableEntityException(
+                "One or both of the identifier system and value are missing from given identifier : " + identifier, INVALID_IDENTIFIER_VALUE);
+        }
     }
 }
@@ -9,8 +9,10 @@ import ca.uhn.fhir.rest.server.exceptions.InvalidRequestException;
 
 import ca.uhn.fhir.rest.server.servlet.ServletRequestDetails;
 
-import java.util.ArrayList;
-import java.util.List;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
 
 
 import org.hl7.fhir.dstu3.model.OperationOutcome;
@@ -20,21 +22,33 @@ import org.openmrs.module.gpconnect.exceptions.OperationOutcomeCreator;
 @Interceptor
 public class InteractionIdInterceptor {
 
+    private static final Map<String, Map<RestOperationTypeEnum, InteractionId>> INTERACTIONS = interactions(
+            new InteractionId("Patient", "SEARCH", RestOperationTypeEnum.SEARCH_TYPE),
+            new InteractionId("Practitioner", "READ", RestOperationTypeEnum.READ),
+            new InteractionId("Practitioner", "SEARCH", RestOperationTypeEnum.SEARCH_TYPE),
+            new InteractionId("Location", "READ", RestOperationTypeEnum.READ));
+
     @Hook(Pointcut.SERVER_INCOMING_REQUEST_PRE_HANDLED)
     public void handleInteractionId(RequestDetails requestDetails, ServletRequestDetails servletRequestDetails, RestOperationTypeEnum operationType) {
-        List<InteractionId> interactions = new ArrayList<>();
-        interactions.add(new InteractionId("Patient", "SEARCH", RestOperationTypeEnum.SEARCH_TYPE));
-        interactions.add(new InteractionId("Practitioner", "READ", RestOperationTypeEnum.READ));
-        interactions.add(new InteractionId("Practitioner", "SEARCH",  RestOperationTypeEnum.SEARCH_TYPE));
-        interactions.add(new InteractionId("Location", "READ",  RestOperationTypeEnum.READ));
-
-        interactions.forEach(interaction -> {
-            if (interaction.hasMatchingRequest(requestDetails) && 
-                interaction.hasMatchingAction(operationType) &&
-                interaction.hasMatchingInteractionId(requestDetails)) {
-                throw createBadRequest(String.format("Interaction id does not match resource: %s, action: %s", interaction.getResource(), interaction.getActionName()));     
-            }
-        });
+        Map<RestOperationTypeEnum, InteractionId> resourceInteractions = INTERACTIONS.get(requestDetails.getResourceName());
+        if (resourceInteractions == null || operationType == null) {
+            return;
+        }
+
+        InteractionId interaction = resourceInteractions.get(operationType);
+        if (interaction != null && !interaction.hasMatchingInteractionId(requestDetails.getHeader("Ssp-InteractionID"))) {
+            throw createBadRequest(String.format("Interaction id does not match resource: %s, action: %s", interaction.getResource(), interaction.getActionName()));
+        }
+    }
+
+    private static Map<String, Map<RestOperationTypeEnum, InteractionId>> interactions(InteractionId... interactionIds) {
+        Map<String, Map<RestOperationTypeEnum, InteractionId>> interactions = new HashMap<>();
+        for (InteractionId interactionId : interactionIds) {
+            interactions.computeIfAbsent(interactionId.getResource(), resource -> new EnumMap<>(RestOperationTypeEnum.class))
+                    .put(interactionId.getOperationType(), interactionId);
+        }
+        interactions.replaceAll((resource, operations) -> Collections.unmodifiableMap(operations));
+        return Collections.unmodifiableMap(interactions);
     }
 
     private InvalidRequestException createBadRequest(String errorMessage) {
@@ -1,5 +1,6 @@
 package org.openmrs.module.gpconnect.server;
 
+import ca.uhn.fhir.rest.server.FifoMemoryPagingProvider;
 import ca.uhn.fhir.rest.server.IResourceProvider;
 import java.util.Collection;
 import java.util.List;
@@ -13,7 +14,6 @@ import org.openmrs.module.gpconnect.interceptors.IdentifierInterceptor;
 import org.openmrs.module.gpconnect.interceptors.InteractionIdInterceptor;
 import org.openmrs.module.gpconnect.providers.GPConnectLocationProvider;
 import org.openmrs.module.gpconnect.providers.GPConnectPatientProvider;
-import org.openmrs.module.gpconnect.providers.GPConnectPractitionerProvider;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Component;
@@ -21,6 +21,12 @@ import org.springframework.stereotype.Component;
 @Component
 public class GPConnectServer extends FhirR3RestServlet {
 	
+	static final int DEFAULT_PAGE_SIZE = 50;
+	
+	static final int MAXIMUM_PAGE_SIZE = 100;
+	
+	static final int PAGING_CACHE_SIZE = 100;
+	
 	@Override
 	protected void initialize() {
 		super.initialize();
@@ -34,6 +40,19 @@ public class GPConnectServer extends FhirR3RestServlet {
 		IdentifierInterceptor identifierInterceptor = new IdentifierInterceptor();
 		registerInterceptor(identifierInterceptor);
 
+		configurePaging();
+	}
+
+	/**
+	 * Installs a bounded FIFO paging provider unless one has already been configured, which is kept.
+	 */
+	void configurePaging() {
+		if (getPagingProvider() == null) {
+			FifoMemoryPagingProvider pagingProvider = new FifoMemoryPagingProvider(PAGING_CACHE_SIZE);
+			pagingProvider.setDefaultPageSize(DEFAULT_PAGE_SIZE);
+			pagingProvider.setMaximumPageSize(MAXIMUM_PAGE_SIZE);
+			setPagingProvider(pagingProvider);
+		}
 	}
 
 	@Autowired
@@ -47,7 +66,7 @@ public class GPConnectServer extends FhirR3RestServlet {
 						.filter( iResourceProvider ->
 								!(iResourceProvider instanceof LocationFhirResourceProvider) || iResourceProvider instanceof GPConnectLocationProvider)
 						.filter( iResourceProvider ->
-								!(iResourceProvider instanceof PractitionerFhirResourceProvider) || iResourceProvider instanceof GPConnectPractitionerProvider)
+								!(iResourceProvider instanceof PractitionerFhirResourceProvider))
 						.collect(Collectors.toList());
 
 		super.setResourceProviders(filteredProviders);
@@ -18,8 +18,10 @@ import org.junit.runner.RunWith;
 import org.mockito.InjectMocks;
 import org.mockito.Matchers;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.runners.MockitoJUnitRunner;
 import org.openmrs.module.fhir2.api.FhirLocationService;
+import org.openmrs.module.gpconnect.services.LocationResourceCache;
 import org.springframework.mock.web.MockHttpServletResponse;
 
 @RunWith(MockitoJUnitRunner.class)
@@ -31,6 +33,9 @@ public class GPConnectLocationProviderWebTest extends BaseFhirR3ResourceProvider
     @Mock
     FhirLocationService locationService;
 
+    @Spy
+    LocationResourceCache locationResourceCache = new LocationResourceCache();
+
     @Getter(AccessLevel.PUBLIC)
     @InjectMocks
     private GPConnectLocationProvider resourceProvider;
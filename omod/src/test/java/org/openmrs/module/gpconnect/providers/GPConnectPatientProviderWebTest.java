@@ -11,6 +11,8 @@ import static org.mockito.Mockito.when;
 import static org.openmrs.module.gpconnect.providers.GPConnectWebTestHelper.assertThatOperationOutcomeHasCorrectStructureAndContent;
 
 import ca.uhn.fhir.rest.api.server.IBundleProvider;
+import ca.uhn.fhir.rest.param.TokenAndListParam;
+import ca.uhn.fhir.rest.param.TokenParam;
 import ca.uhn.fhir.rest.server.exceptions.ResourceVersionConflictException;
 import java.io.IOException;
 import java.io.InputStream;
@@ -21,21 +23,21 @@ import lombok.AccessLevel;
 import lombok.Getter;
 import org.apache.commons.io.IOUtils;
 import org.hl7.fhir.dstu3.model.Bundle;
-import org.hl7.fhir.dstu3.model.DateTimeType;
 import org.hl7.fhir.dstu3.model.OperationOutcome;
 import org.hl7.fhir.dstu3.model.OperationOutcome.IssueType;
 import org.hl7.fhir.dstu3.model.Patient;
 import org.junit.Test;
 import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Matchers;
 import org.mockito.Mock;
 import org.mockito.runners.MockitoJUnitRunner;
-import org.openmrs.PatientIdentifierType;
 import org.openmrs.module.fhir2.api.FhirPatientService;
 import org.openmrs.module.gpconnect.mappers.NhsPatientMapper;
 import org.openmrs.module.gpconnect.mappers.valueSets.RegistrationType;
 import org.openmrs.module.gpconnect.services.GPConnectPatientService;
+import org.openmrs.module.gpconnect.services.PatientIdentifierTypeNameCache;
 import org.springframework.mock.web.MockHttpServletResponse;
 
 @RunWith(MockitoJUnitRunner.class)
@@ -53,6 +55,9 @@ public class GPConnectPatientProviderWebTest extends BaseFhirR3ResourceProviderW
     @Mock
     GPConnectPatientService gpConnectPatientService;
 
+    @Mock
+    PatientIdentifierTypeNameCache identifierTypeNameCache;
+
     @Getter(AccessLevel.PUBLIC)
     @InjectMocks
     private GPConnectPatientProvider resourceProvider;
@@ -122,7 +127,7 @@ public class GPConnectPatientProviderWebTest extends BaseFhirR3ResourceProviderW
 
         String patientRegister = patientRegisterTemplate.replace("$$nhsNumber$$", nhsNumber);
 
-        when(gpConnectPatientService.save(Matchers.any(), Matchers.anyBoolean())).thenThrow(new ResourceVersionConflictException("Nhs number exists"));
+        when(gpConnectPatientService.register(Matchers.any())).thenThrow(new ResourceVersionConflictException("Nhs number exists"));
 
         MockHttpServletResponse response = post("/Patient/$gpc.registerpatient").jsonContent(patientRegister).go();
 
@@ -137,13 +142,13 @@ public class GPConnectPatientProviderWebTest extends BaseFhirR3ResourceProviderW
         Patient r3Patient = new Patient();
         r3Patient.setId(VALID_PATIENT_UUID);
 
-        when(nhsPatientMapper.enhance(Matchers.any())).thenReturn(r3Patient);
+        when(nhsPatientMapper.enhanceAll(Matchers.any())).thenReturn(Collections.singletonList(r3Patient));
         
-        when(patientService.getPatientIdentifierTypeByIdentifier(Matchers.any()))
-            .thenReturn(new PatientIdentifierType());
+        when(identifierTypeNameCache.contains(Matchers.anyString())).thenReturn(true);
         
         IBundleProvider provider = mock(IBundleProvider.class);
-        when(provider.getResources(0, 0)).thenReturn(Collections.singletonList(r4Patient));
+        when(provider.size()).thenReturn(1);
+        when(provider.getResources(Matchers.anyInt(), Matchers.anyInt())).thenReturn(Collections.singletonList(r4Patient));
 
         when(patientService.searchForPatients(Matchers.any(),Matchers.any(),Matchers.any(),Matchers.any(),Matchers.any(),
             Matchers.any(),Matchers.any(),Matchers.any(),Matchers.any(),Matchers.any(),
@@ -163,22 +168,13 @@ public class GPConnectPatientProviderWebTest extends BaseFhirR3ResourceProviderW
     @Test
     public void shouldSkipDeadPatientsInSearch() throws IOException, ServletException {
 
-        org.hl7.fhir.r4.model.Patient inactivePatient = new org.hl7.fhir.r4.model.Patient();
-
-        Patient r3Patient = new Patient();
-        r3Patient.setId(VALID_PATIENT_UUID);
-        r3Patient.setDeceased(new DateTimeType());
-
-        when(nhsPatientMapper.enhance(Matchers.any())).thenReturn(r3Patient);
-        
-        when(patientService.getPatientIdentifierTypeByIdentifier(Matchers.any()))
-            .thenReturn(new PatientIdentifierType());
+        when(identifierTypeNameCache.contains(Matchers.anyString())).thenReturn(true);
         
         IBundleProvider provider = mock(IBundleProvider.class);
-        when(provider.getResources(0, 0)).thenReturn(Collections.singletonList(inactivePatient));
 
+        ArgumentCaptor<TokenAndListParam> deceasedCaptor = ArgumentCaptor.forClass(TokenAndListParam.class);
         when(patientService.searchForPatients(Matchers.any(),Matchers.any(),Matchers.any(),Matchers.any(),Matchers.any(),
-            Matchers.any(),Matchers.any(),Matchers.any(),Matchers.any(),Matchers.any(),
+            Matchers.any(),Matchers.any(),deceasedCaptor.capture(),Matchers.any(),Matchers.any(),
             Matchers.any(),Matchers.any(),Matchers.any(),Matchers.any(),Matchers.any()
         )).thenReturn(provider);
 
@@ -190,6 +186,8 @@ public class GPConnectPatientProviderWebTest extends BaseFhirR3ResourceProviderW
         Bundle resource = readBundleResponse(response);
 
         assertThat(resource.getEntry().size(), equalTo(0));
+        TokenParam deceased = deceasedCaptor.getValue().getValuesAsQueryTokens().get(0).getValuesAsQueryTokens().get(0);
+        assertThat(deceased.getValue(), equalTo("false"));
     }
 
     @Test
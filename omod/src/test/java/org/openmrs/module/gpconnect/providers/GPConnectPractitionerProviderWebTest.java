@@ -1,24 +1,34 @@
 package org.openmrs.module.gpconnect.providers;
 
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.notNullValue;
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.lessThan;
 import static org.mockito.Mockito.when;
 
 import ca.uhn.fhir.rest.api.server.IBundleProvider;
 import ca.uhn.fhir.rest.server.BundleProviders;
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
 import javax.servlet.ServletException;
 import lombok.AccessLevel;
 import lombok.Getter;
+import org.hl7.fhir.dstu3.model.Bundle;
 import org.hl7.fhir.dstu3.model.OperationOutcome;
 import org.hl7.fhir.dstu3.model.OperationOutcome.IssueType;
 import org.hl7.fhir.dstu3.model.Practitioner;
+import org.hl7.fhir.instance.model.api.IBaseResource;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.mockito.InjectMocks;
 import org.mockito.Matchers;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.runners.MockitoJUnitRunner;
 import org.openmrs.module.fhir2.api.FhirPractitionerService;
+import org.openmrs.module.gpconnect.services.GPConnectPractitionerService;
+import org.openmrs.module.gpconnect.services.PractitionerResourceCache;
 import org.springframework.mock.web.MockHttpServletResponse;
 
 @RunWith(MockitoJUnitRunner.class)
@@ -28,6 +38,12 @@ public class GPConnectPractitionerProviderWebTest extends BaseFhirR3ResourceProv
     @Mock
     private FhirPractitionerService practitionerService;
 
+    @Mock
+    private GPConnectPractitionerService gpConnectPractitionerService;
+
+    @Spy
+    private PractitionerResourceCache practitionerResourceCache = new PractitionerResourceCache();
+
     @Getter(AccessLevel.PUBLIC)
     @InjectMocks
     private GPConnectPractitionerProvider resourceProvider;
@@ -84,10 +100,7 @@ public class GPConnectPractitionerProviderWebTest extends BaseFhirR3ResourceProv
 
         IBundleProvider provider = BundleProviders
             .newList(new org.hl7.fhir.r4.model.Practitioner());
-        when(practitionerService
-            .searchForPractitioners(Matchers.any(), Matchers.any(), Matchers.any(), Matchers.any(),
-                Matchers.any(), Matchers.any(), Matchers.any(), Matchers.any(), Matchers.any(),
-                Matchers.any())).thenReturn(provider);
+        when(gpConnectPractitionerService.searchBySdsUserId(Matchers.any())).thenReturn(provider);
 
         MockHttpServletResponse response = get(
             "/Practitioner?identifier=https://fhir.nhs.uk/Id/sds-user-id|" + identifier)
@@ -108,10 +121,7 @@ public class GPConnectPractitionerProviderWebTest extends BaseFhirR3ResourceProv
 
         IBundleProvider provider = BundleProviders
             .newList(new org.hl7.fhir.r4.model.Practitioner());
-        when(practitionerService
-            .searchForPractitioners(Matchers.any(), Matchers.any(), Matchers.any(), Matchers.any(),
-                Matchers.any(), Matchers.any(), Matchers.any(), Matchers.any(), Matchers.any(),
-                Matchers.any())).thenReturn(provider);
+        when(gpConnectPractitionerService.searchBySdsUserId(Matchers.any())).thenReturn(provider);
 
         MockHttpServletResponse response = get(
             "/Practitioner?identifier=https://fhir.nhs.uk/Id/sds-user-id|" + identifier)
@@ -133,10 +143,7 @@ public class GPConnectPractitionerProviderWebTest extends BaseFhirR3ResourceProv
 
         IBundleProvider provider = BundleProviders
             .newList(new org.hl7.fhir.r4.model.Practitioner());
-        when(practitionerService
-            .searchForPractitioners(Matchers.any(), Matchers.any(), Matchers.any(), Matchers.any(),
-                Matchers.any(), Matchers.any(), Matchers.any(), Matchers.any(), Matchers.any(),
-                Matchers.any())).thenReturn(provider);
+        when(gpConnectPractitionerService.searchBySdsUserId(Matchers.any())).thenReturn(provider);
 
         MockHttpServletResponse response = get(
             "/Practitioner?identifier=https://fhir.nhs.uk/Id/sds-user-id|" + identifier)
@@ -153,10 +160,7 @@ public class GPConnectPractitionerProviderWebTest extends BaseFhirR3ResourceProv
 
         IBundleProvider provider = BundleProviders
             .newList(new org.hl7.fhir.r4.model.Practitioner());
-        when(practitionerService
-            .searchForPractitioners(Matchers.any(), Matchers.any(), Matchers.any(), Matchers.any(),
-                Matchers.any(), Matchers.any(), Matchers.any(), Matchers.any(), Matchers.any(),
-                Matchers.any())).thenReturn(provider);
+        when(gpConnectPractitionerService.searchBySdsUserId(Matchers.any())).thenReturn(provider);
 
         String invalidCaseParameter = "Identifier";
         MockHttpServletResponse response = get(
@@ -179,10 +183,7 @@ public class GPConnectPractitionerProviderWebTest extends BaseFhirR3ResourceProv
 
         IBundleProvider provider = BundleProviders
             .newList(new org.hl7.fhir.r4.model.Practitioner());
-        when(practitionerService
-            .searchForPractitioners(Matchers.any(), Matchers.any(), Matchers.any(), Matchers.any(),
-                Matchers.any(), Matchers.any(), Matchers.any(), Matchers.any(), Matchers.any(),
-                Matchers.any())).thenReturn(provider);
+        when(gpConnectPractitionerService.searchBySdsUserId(Matchers.any())).thenReturn(provider);
 
         MockHttpServletResponse response = get(
             "/Practitioner?identifier=" + identifierSystemAndValue)
@@ -206,10 +207,7 @@ public class GPConnectPractitionerProviderWebTest extends BaseFhirR3ResourceProv
 
         IBundleProvider provider = BundleProviders
             .newList(new org.hl7.fhir.r4.model.Practitioner());
-        when(practitionerService
-            .searchForPractitioners(Matchers.any(), Matchers.any(), Matchers.any(), Matchers.any(),
-                Matchers.any(), Matchers.any(), Matchers.any(), Matchers.any(), Matchers.any(),
-                Matchers.any())).thenReturn(provider);
+        when(gpConnectPractitionerService.searchBySdsUserId(Matchers.any())).thenReturn(provider);
 
         MockHttpServletResponse response = get(
             "/Practitioner?identifier=" + identifierSystemAndValue)
@@ -230,10 +228,7 @@ public class GPConnectPractitionerProviderWebTest extends BaseFhirR3ResourceProv
     public void shouldReturn400WhenSearchingWithNoIdentifierParameter() throws IOException, ServletException {
         IBundleProvider provider = BundleProviders
             .newList(new org.hl7.fhir.r4.model.Practitioner());
-        when(practitionerService
-            .searchForPractitioners(Matchers.any(), Matchers.any(), Matchers.any(), Matchers.any(),
-                Matchers.any(), Matchers.any(), Matchers.any(), Matchers.any(), Matchers.any(),
-                Matchers.any())).thenReturn(provider);
+        when(gpConnectPractitionerService.searchBySdsUserId(Matchers.any())).thenReturn(provider);
 
         MockHttpServletResponse response = get(
             "/Practitioner/")
@@ -254,10 +249,7 @@ public class GPConnectPractitionerProviderWebTest extends BaseFhirR3ResourceProv
 
         IBundleProvider provider = BundleProviders
             .newList(new org.hl7.fhir.r4.model.Practitioner());
-        when(practitionerService
-            .searchForPractitioners(Matchers.any(), Matchers.any(), Matchers.any(), Matchers.any(),
-                Matchers.any(), Matchers.any(), Matchers.any(), Matchers.any(), Matchers.any(),
-                Matchers.any())).thenReturn(provider);
+        when(gpConnectPractitionerService.searchBySdsUserId(Matchers.any())).thenReturn(provider);
 
         MockHttpServletResponse response = get(
             "/Practitioner?identifier=" + identifierSystemAndValue + "&identifier=")
@@ -279,10 +271,7 @@ public class GPConnectPractitionerProviderWebTest extends BaseFhirR3ResourceProv
 
         IBundleProvider provider = BundleProviders
             .newList(new org.hl7.fhir.r4.model.Practitioner());
-        when(practitionerService
-            .searchForPractitioners(Matchers.any(), Matchers.any(), Matchers.any(), Matchers.any(),
-                Matchers.any(), Matchers.any(), Matchers.any(), Matchers.any(), Matchers.any(),
-                Matchers.any())).thenReturn(provider);
+        when(gpConnectPractitionerService.searchBySdsUserId(Matchers.any())).thenReturn(provider);
 
         MockHttpServletResponse response = get(
             "/Practitioner?identifier=" + identifierSystemAndValue)
@@ -304,10 +293,7 @@ public class GPConnectPractitionerProviderWebTest extends BaseFhirR3ResourceProv
 
         IBundleProvider provider = BundleProviders
             .newList(new org.hl7.fhir.r4.model.Practitioner());
-        when(practitionerService
-            .searchForPractitioners(Matchers.any(), Matchers.any(), Matchers.any(), Matchers.any(),
-                Matchers.any(), Matchers.any(), Matchers.any(), Matchers.any(), Matchers.any(),
-                Matchers.any())).thenReturn(provider);
+        when(gpConnectPractitionerService.searchBySdsUserId(Matchers.any())).thenReturn(provider);
 
         MockHttpServletResponse response = get(
             "/Practitioner?identifier=" + identifierSystemAndValue)
@@ -330,10 +316,7 @@ public class GPConnectPractitionerProviderWebTest extends BaseFhirR3ResourceProv
 
         IBundleProvider provider = BundleProviders
             .newList(new org.hl7.fhir.r4.model.Practitioner());
-        when(practitionerService
-            .searchForPractitioners(Matchers.any(), Matchers.any(), Matchers.any(), Matchers.any(),
-                Matchers.any(), Matchers.any(), Matchers.any(), Matchers.any(), Matchers.any(),
-                Matchers.any())).thenReturn(provider);
+        when(gpConnectPractitionerService.searchBySdsUserId(Matchers.any())).thenReturn(provider);
 
         MockHttpServletResponse response = get(
             "/Practitioner?identifier=" + identifierSystemAndValue)
@@ -356,10 +339,7 @@ public class GPConnectPractitionerProviderWebTest extends BaseFhirR3ResourceProv
 
         IBundleProvider provider = BundleProviders
             .newList(new org.hl7.fhir.r4.model.Practitioner());
-        when(practitionerService
-            .searchForPractitioners(Matchers.any(), Matchers.any(), Matchers.any(), Matchers.any(),
-                Matchers.any(), Matchers.any(), Matchers.any(), Matchers.any(), Matchers.any(),
-                Matchers.any())).thenReturn(provider);
+        when(gpConnectPractitionerService.searchBySdsUserId(Matchers.any())).thenReturn(provider);
 
         MockHttpServletResponse response = get(
             "/Practitioner?identifier=" + identifierSystemAndValue)
@@ -381,10 +361,7 @@ public class GPConnectPractitionerProviderWebTest extends BaseFhirR3ResourceProv
 
         IBundleProvider provider = BundleProviders
             .newList(new org.hl7.fhir.r4.model.Practitioner());
-        when(practitionerService
-            .searchForPractitioners(Matchers.any(), Matchers.any(), Matchers.any(), Matchers.any(),
-                Matchers.any(), Matchers.any(), Matchers.any(), Matchers.any(), Matchers.any(),
-                Matchers.any())).thenReturn(provider);
+        when(gpConnectPractitionerService.searchBySdsUserId(Matchers.any())).thenReturn(provider);
 
         MockHttpServletResponse response = get(
             "/Practitioner?identifier=" + identifierSystemAndValue)
@@ -401,6 +378,28 @@ public class GPConnectPractitionerProviderWebTest extends BaseFhirR3ResourceProv
         );
     }
 
+    @Test
+    public void shouldReturnFirstPageWithNextLinkWhenSearchMatchesManyPractitioners() throws IOException, ServletException {
+        List<IBaseResource> practitioners = new ArrayList<>();
+        for (int i = 0; i < 60; i++) {
+            practitioners.add(new org.hl7.fhir.r4.model.Practitioner().setId("practitioner-" + i));
+        }
+        when(gpConnectPractitionerService.searchBySdsUserId(Matchers.any())).thenReturn(BundleProviders.newList(practitioners));
+
+        MockHttpServletResponse response = get(
+            "/Practitioner?identifier=https://fhir.nhs.uk/Id/sds-user-id|G11111111")
+            .accept(FhirMediaTypes.JSON)
+            .setInteractionId("urn:nhs:names:services:gpconnect:fhir:rest:search:practitioner-1")
+            .go();
+
+        assertThat(response, statusEquals(200));
+
+        Bundle bundle = readBundleResponse(response);
+        assertThat(bundle.getTotal(), equalTo(60));
+        assertThat(bundle.getEntry().size(), lessThan(60));
+        assertThat(bundle.getLink(Bundle.LINK_NEXT), notNullValue());
+    }
+
     @Test
     public void shouldReturn200WhenReadingTheCapabilityStatement() throws IOException, ServletException {
         MockHttpServletResponse response = get(
@@ -0,0 +1,38 @@
+package org.openmrs.module.gpconnect.server;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+import ca.uhn.fhir.rest.server.FifoMemoryPagingProvider;
+import ca.uhn.fhir.rest.server.IPagingProvider;
+import org.junit.Test;
+
+public class GPConnectServerTest {
+
+    @Test
+    public void shouldInstallBoundedPagingProviderWhenNoneIsConfigured() {
+        GPConnectServer server = new GPConnectServer();
+
+        server.configurePaging();
+
+        IPagingProvider pagingProvider = server.getPagingProvider();
+        assertThat(pagingProvider, instanceOf(FifoMemoryPagingProvider.class));
+        assertThat(pagingProvider.getDefaultPageSize(), equalTo(50));
+        assertThat(pagingProvider.getMaximumPageSize(), equalTo(100));
+    }
+
+    @Test
+    public void shouldKeepConfiguredPagingProvider() {
+        GPConnectServer server = new GPConnectServer();
+        FifoMemoryPagingProvider configuredPagingProvider = new FifoMemoryPagingProvider(10);
+        configuredPagingProvider.setDefaultPageSize(20);
+        server.setPagingProvider(configuredPagingProvider);
+
+        server.configurePaging();
+
+        assertThat(server.getPagingProvider(), sameInstance(configuredPagingProvider));
+        assertThat(server.getPagingProvider().getDefaultPageSize(), equalTo(20));
+    }
+}